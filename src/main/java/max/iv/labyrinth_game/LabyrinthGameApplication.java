@@ -2,8 +2,10 @@ package max.iv.labyrinth_game;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LabyrinthGameApplication {
 
 	public static void main(String[] args) {
@@ -12,6 +12,8 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Getter
@@ -22,7 +24,18 @@ public class BoardConfigLoader {
     @Value("classpath:board-layout.json")
     private Resource configFile;
 
+    // Необязательный: без него раскладки маркеров не фильтруются
+    @Value("classpath:fairness-model.json")
+    private Resource fairnessModelFile;
+
+    @Value("${game.fairness.max-layout-imbalance:0.15}")
+    private double maxLayoutImbalance = 0.15;
+
     private BoardConfig boardConfig;
+    private BoardTemplate boardTemplate;
+    private FairnessModel fairnessModel;
+    // Сгенерированные шаблоны для размеров, отличных от board-layout.json
+    private final Map<Integer, BoardTemplate> generatedTemplates = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void loadConfig() {
@@ -37,10 +50,67 @@ public class BoardConfigLoader {
             this.boardConfig = objectMapper.readValue(inputStream, BoardConfig.class);
             log.info("Board configuration loaded successfully from: {}", configFile.getFilename());
             validateConfig(this.boardConfig);
+            this.boardTemplate = BoardTemplate.compile(this.boardConfig);
         } catch (IOException e) {
             log.error("Failed to load board configuration from: {}", configFile.getFilename(), e);
             throw new RuntimeException("Failed to load board configuration", e);
         }
+        loadFairnessModel(objectMapper);
+        rejectUnfairLayout(this.boardConfig.boardSize());
+    }
+
+    private void loadFairnessModel(ObjectMapper objectMapper) {
+        if (fairnessModelFile == null || !fairnessModelFile.exists()) {
+            log.info("No fairness model found; marker layouts will not be filtered.");
+            return;
+        }
+        try (InputStream inputStream = fairnessModelFile.getInputStream()) {
+            this.fairnessModel = objectMapper.readValue(inputStream, FairnessModel.class);
+            log.info("Fairness model loaded from: {} ({} entries)", fairnessModelFile.getFilename(),
+                    fairnessModel.entries() != null ? fairnessModel.entries().size() : 0);
+        } catch (IOException e) {
+            log.error("Failed to load fairness model from: {}", fairnessModelFile.getFilename(), e);
+            throw new RuntimeException("Failed to load fairness model", e);
+        }
+    }
+
+    private void rejectUnfairLayout(int boardSize) {
+        if (fairnessModel == null) {
+            return;
+        }
+        if (!fairnessModel.covers(boardSize)) {
+            log.warn("Board layout {}x{} is not covered by the fairness model; its marker layouts will not be filtered.",
+                    boardSize, boardSize);
+            return;
+        }
+        double imbalance = fairnessModel.layoutImbalance(boardSize);
+        if (imbalance > maxLayoutImbalance) {
+            throw new IllegalArgumentException(String.format(
+                    "Board layout %dx%d is rejected by the fairness model: imbalance %.3f exceeds %.3f.",
+                    boardSize, boardSize, imbalance, maxLayoutImbalance));
+        }
+    }
+
+    // Порог приёмки раскладки маркеров для доски и числа игроков; null — не фильтровать
+    public FairnessModel.Entry getFairnessEntry(int boardSize, int players) {
+        return fairnessModel != null ? fairnessModel.find(boardSize, players) : null;
+    }
+
+    // Размер доски для новой комнаты: 0 — из board-layout.json, иначе нечётный, посчитанный моделью честности
+    // (если она загружена) и принятый ею
+    public void validateBoardSize(int boardSize) {
+        if (boardSize == 0) {
+            return;
+        }
+        if (boardSize < BoardTemplate.MIN_BOARD_SIZE || boardSize > BoardTemplate.MAX_BOARD_SIZE || boardSize % 2 == 0) {
+            throw new IllegalArgumentException("Board size must be odd and between " + BoardTemplate.MIN_BOARD_SIZE
+                    + " and " + BoardTemplate.MAX_BOARD_SIZE + ".");
+        }
+        if (fairnessModel != null && !fairnessModel.covers(boardSize)) {
+            throw new IllegalArgumentException(String.format(
+                    "Board size %d is not covered by the fairness model.", boardSize));
+        }
+        rejectUnfairLayout(boardSize);
     }
 
     public BoardConfig getBoardConfig() {
@@ -52,6 +122,26 @@ public class BoardConfigLoader {
         return this.boardConfig;
     }
 
+    public BoardTemplate getBoardTemplate() {
+        if (this.boardTemplate == null) {
+            log.error("BoardTemplate requested before loading or after a loading failure.");
+            throw new IllegalStateException("Board template is not available.");
+        }
+        return this.boardTemplate;
+    }
+
+    // Размер из board-layout.json — скомпилированный конфиг, любой другой — сгенерированный шаблон
+    public BoardTemplate getBoardTemplate(int boardSize) {
+        BoardTemplate configured = getBoardTemplate();
+        if (boardSize == configured.getBoardSize()) {
+            return configured;
+        }
+        return generatedTemplates.computeIfAbsent(boardSize, size -> {
+            log.info("Generating board template for size {}.", size);
+            return BoardTemplate.generate(size, BoardProfile.CLASSIC);
+        });
+    }
+
     private void validateConfig(BoardConfig config) {
         // Пример валидации:
         if (config == null) {
@@ -0,0 +1,64 @@
+package max.iv.labyrinth_game.config.game;
+
+import max.iv.labyrinth_game.model.game.enums.TileType;
+
+/**
+ * Пропорции подвижных тайлов и плотность маркеров, из которых считается раскладка доски любого размера.
+ * CLASSIC — пропорции классической доски 7x7: 13 прямых, 15 угловых, 6 T-образных и 12 маркеров.
+ */
+public record BoardProfile(int straightWeight, int cornerWeight, int tShapedWeight, double markersPerCell) {
+
+    public static final BoardProfile CLASSIC = new BoardProfile(13, 15, 6, 12.0 / 49);
+
+    // Маркеров всегда кратно 12, чтобы они поровну делились между 2, 3 и 4 игроками
+    public static final int MARKER_GROUP = 12;
+
+    public BoardProfile {
+        if (straightWeight < 0 || cornerWeight < 0 || tShapedWeight < 0 || straightWeight + cornerWeight + tShapedWeight == 0) {
+            throw new IllegalArgumentException("Tile weights must be non-negative and not all zero.");
+        }
+        if (markersPerCell <= 0) {
+            throw new IllegalArgumentException("Marker density must be positive. Received: " + markersPerCell);
+        }
+    }
+
+    // count подвижных тайлов в пропорции весов (метод наибольшего остатка), сгруппированные по типу
+    public TileType[] movableTiles(int count) {
+        int[] weights = {straightWeight, cornerWeight, tShapedWeight};
+        TileType[] types = {TileType.STRAIGHT, TileType.CORNER, TileType.T_SHAPED};
+        int totalWeight = straightWeight + cornerWeight + tShapedWeight;
+        int[] counts = new int[types.length];
+        long[] remainders = new long[types.length];
+        int assigned = 0;
+        for (int i = 0; i < types.length; i++) {
+            long scaled = (long) count * weights[i];
+            counts[i] = (int) (scaled / totalWeight);
+            remainders[i] = scaled % totalWeight;
+            assigned += counts[i];
+        }
+        while (assigned < count) {
+            int best = 0;
+            for (int i = 1; i < types.length; i++) {
+                if (remainders[i] > remainders[best]) best = i;
+            }
+            counts[best]++;
+            remainders[best] = -1;
+            assigned++;
+        }
+
+        TileType[] tiles = new TileType[count];
+        int position = 0;
+        for (int i = 0; i < types.length; i++) {
+            for (int n = 0; n < counts[i]; n++) {
+                tiles[position++] = types[i];
+            }
+        }
+        return tiles;
+    }
+
+    public int markerCount(int cellCount, int eligibleCells) {
+        long groups = Math.max(1, Math.round(markersPerCell * cellCount / MARKER_GROUP));
+        long maxGroups = eligibleCells / MARKER_GROUP;
+        return (int) Math.min(groups, maxGroups) * MARKER_GROUP;
+    }
+}
@@ -0,0 +1,187 @@
+package max.iv.labyrinth_game.config.game;
+
+import lombok.Getter;
+import max.iv.labyrinth_game.model.game.Base;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Cell;
+import max.iv.labyrinth_game.model.game.Tile;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Раскладка доски, скомпилированная один раз: базы с уже разобранными выходами и для каждого числа
+ * игроков — готовая доска-прототип (стационарные тайлы и выходы занятых баз) плюс индексы клеток
+ * под маркеры, набор подвижных тайлов и число маркеров. Старт партии — копия массивов прототипа.
+ * Шаблон берётся либо из board-layout.json (compile), либо строится по размеру и профилю (generate).
+ * Прототипы наружу не отдаются и не меняются, поэтому шаблон можно читать из любых потоков.
+ */
+public final class BoardTemplate {
+
+    public static final int MIN_BOARD_SIZE = 5;
+    public static final int MAX_BOARD_SIZE = 63;
+
+    @Getter
+    private final int boardSize;
+    @Getter
+    private final List<Base> bases;
+    @Getter
+    private final int markerCount;
+    private final Board[] prototypes;        // [число игроков] — выходы баз только у первых N игроков
+    private final int[][] markerCells;       // [число игроков] — все клетки, кроме занятых баз
+    private final int[] movableCells;        // нестационарные клетки по порядку обхода
+    private final TileType[] movableTilePool; // подвижные тайлы: по одному на нестационарную клетку плюс запасной
+
+    private BoardTemplate(Board stationaryLayout, List<Base> bases, BoardProfile profile) {
+        int size = stationaryLayout.getSize();
+        int cellCount = size * size;
+        this.boardSize = size;
+        this.bases = List.copyOf(bases);
+        this.prototypes = new Board[bases.size() + 1];
+        this.markerCells = new int[bases.size() + 1][];
+
+        // Каждый следующий прототип — копия предыдущего плюс выходы ещё одной базы
+        boolean[] occupied = new boolean[cellCount];
+        prototypes[0] = stationaryLayout;
+        markerCells[0] = freeCells(occupied);
+        for (int players = 1; players <= bases.size(); players++) {
+            Base base = bases.get(players - 1);
+            int baseCell = base.y() * size + base.x();
+            Board prototype = new Board(prototypes[players - 1]);
+            prototype.getCell(base.x(), base.y()).setFixedOpenSidesMask(Direction.toMask(base.exits()));
+            prototypes[players] = prototype;
+            occupied[baseCell] = true;
+            markerCells[players] = freeCells(occupied);
+        }
+
+        int[] movable = new int[cellCount];
+        int count = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!stationaryLayout.isStationary(cell)) {
+                movable[count++] = cell;
+            }
+        }
+        this.movableCells = Arrays.copyOf(movable, count);
+        this.movableTilePool = profile.movableTiles(count + 1);
+        this.markerCount = profile.markerCount(cellCount, markerCells[bases.size()].length);
+    }
+
+    // Шаблон из board-layout.json; тайлы и маркеры — в классических пропорциях
+    public static BoardTemplate compile(BoardConfig config) {
+        int size = config.boardSize();
+        List<Base> bases = new ArrayList<>();
+        for (BaseConfig baseConfig : config.bases()) {
+            if (baseConfig.x() < 0 || baseConfig.x() >= size || baseConfig.y() < 0 || baseConfig.y() >= size) {
+                throw new IllegalArgumentException("Base is outside the board in config: (" + baseConfig.x() + "," + baseConfig.y() + ")");
+            }
+            bases.add(new Base(baseConfig.x(), baseConfig.y(), parseDirections(baseConfig.exits())));
+        }
+
+        Board layout = new Board(size);
+        if (config.stationaryTiles() != null) {
+            for (StationaryTileConfig tileConfig : config.stationaryTiles()) {
+                Cell cell = layout.getCell(tileConfig.x(), tileConfig.y());
+                if (cell == null || !cell.isStationary()) continue;
+                try {
+                    TileType type = TileType.valueOf(tileConfig.type().toUpperCase());
+                    cell.setTile(new Tile(type, tileConfig.orientation()));
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        }
+        return new BoardTemplate(layout, bases, BoardProfile.CLASSIC);
+    }
+
+    /**
+     * Шаблон для любого нечётного размера: базы в углах, на остальных стационарных клетках —
+     * T-образные тайлы, закрытые стороной к ближайшему краю (при равенстве — к боковому).
+     * Для 7x7 это в точности раскладка из board-layout.json. Один проход по клеткам.
+     */
+    public static BoardTemplate generate(int size, BoardProfile profile) {
+        if (size < MIN_BOARD_SIZE || size > MAX_BOARD_SIZE || size % 2 == 0) {
+            throw new IllegalArgumentException("Board size must be odd and between " + MIN_BOARD_SIZE + " and "
+                    + MAX_BOARD_SIZE + ". Received: " + size);
+        }
+        int last = size - 1;
+        List<Base> bases = List.of(
+                new Base(0, 0, Set.of(Direction.SOUTH, Direction.EAST)),
+                new Base(last, 0, Set.of(Direction.SOUTH, Direction.WEST)),
+                new Base(last, last, Set.of(Direction.NORTH, Direction.WEST)),
+                new Base(0, last, Set.of(Direction.NORTH, Direction.EAST)));
+
+        Board layout = new Board(size);
+        for (int y = 0; y < size; y += 2) {
+            for (int x = 0; x < size; x += 2) {
+                boolean corner = (x == 0 || x == last) && (y == 0 || y == last);
+                if (!corner) {
+                    layout.setTileShape(y * size + x, TileType.T_SHAPED, closedTowardNearestEdge(x, y, last));
+                }
+            }
+        }
+        return new BoardTemplate(layout, bases, profile);
+    }
+
+    // Ориентация T-тайла (см. TileType): 0 — закрыт юг, 1 — запад, 2 — север, 3 — восток
+    private static int closedTowardNearestEdge(int x, int y, int last) {
+        int horizontal = Math.min(x, last - x);
+        int vertical = Math.min(y, last - y);
+        if (horizontal <= vertical) {
+            return x <= last - x ? 1 : 3;
+        }
+        return y <= last - y ? 2 : 0;
+    }
+
+    // Новая доска для партии на playerCount игроков: стационарные тайлы и выходы баз уже на месте
+    public Board newBoard(int playerCount) {
+        return new Board(prototypes[Math.min(playerCount, bases.size())]);
+    }
+
+    // Копия индексов клеток под маркеры — вызывающий может перемешивать её на месте
+    public int[] markerCells(int playerCount) {
+        return markerCells[Math.min(playerCount, bases.size())].clone();
+    }
+
+    // Копия набора подвижных тайлов (последний по счёту после тасовки станет запасным)
+    public TileType[] movableTiles() {
+        return movableTilePool.clone();
+    }
+
+    public int movableCellCount() {
+        return movableCells.length;
+    }
+
+    public int movableCell(int i) {
+        return movableCells[i];
+    }
+
+    private static int[] freeCells(boolean[] occupied) {
+        int[] cells = new int[occupied.length];
+        int count = 0;
+        for (int cell = 0; cell < occupied.length; cell++) {
+            if (!occupied[cell]) {
+                cells[count++] = cell;
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    private static Set<Direction> parseDirections(List<String> directions) {
+        if (directions == null) {
+            return Collections.emptySet();
+        }
+        Set<Direction> result = EnumSet.noneOf(Direction.class);
+        for (String direction : directions) {
+            try {
+                result.add(Direction.valueOf(direction.toUpperCase()));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
@@ -0,0 +1,86 @@
+package max.iv.labyrinth_game.config.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Player;
+
+import java.util.List;
+
+/**
+ * Модель приёмки раскладок, заранее посчитанная офлайн-анализатором (FairnessAnalyzer в тестах)
+ * и лежащая в fairness-model.json. На старте партии анализ не запускается: раскладка маркеров
+ * сверяется с порогом дешёвого признака — разброса между игроками среднего манхэттенского
+ * расстояния от базы до своих маркеров.
+ */
+public record FairnessModel(List<Entry> entries) {
+
+    /**
+     * @param maxMarkerDistanceSpread порог разброса расстояний до маркеров для этой доски и числа игроков
+     * @param layoutImbalance         относительный перекос баз самой раскладки по результатам анализа
+     */
+    public record Entry(int boardSize, int players, double maxMarkerDistanceSpread, double layoutImbalance) {
+    }
+
+    // null — для такой доски и числа игроков модель ничего не знает
+    public Entry find(int boardSize, int players) {
+        if (entries == null) {
+            return null;
+        }
+        for (Entry entry : entries) {
+            if (entry.boardSize() == boardSize && entry.players() == players) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // Анализировалась ли доска такого размера хотя бы для одного числа игроков
+    public boolean covers(int boardSize) {
+        if (entries == null) {
+            return false;
+        }
+        for (Entry entry : entries) {
+            if (entry.boardSize() == boardSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Максимальный перекос раскладки по всем числам игроков; 0, если доска не анализировалась (см. covers)
+    public double layoutImbalance(int boardSize) {
+        double imbalance = 0;
+        if (entries != null) {
+            for (Entry entry : entries) {
+                if (entry.boardSize() == boardSize) {
+                    imbalance = Math.max(imbalance, entry.layoutImbalance());
+                }
+            }
+        }
+        return imbalance;
+    }
+
+    // Разброс (max - min) между игроками среднего расстояния от базы до своих маркеров на доске
+    public static double markerDistanceSpread(Board board, List<Player> players) {
+        int size = board.getSize();
+        double[] distanceSums = new double[players.size()];
+        int[] counts = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            for (int markerId : player.getTargetMarkerIds()) {
+                int slot = board.getMarkerSlot(markerId);
+                if (slot < 0 || slot == board.getExtraSlot()) continue;
+                distanceSums[seat] += Math.abs(slot % size - player.getBase().x()) + Math.abs(slot / size - player.getBase().y());
+                counts[seat]++;
+            }
+        }
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (counts[seat] == 0) continue;
+            double mean = distanceSums[seat] / counts[seat];
+            min = Math.min(min, mean);
+            max = Math.max(max, mean);
+        }
+        return min == Double.MAX_VALUE ? 0 : max - min;
+    }
+}
@@ -0,0 +1,47 @@
+package max.iv.labyrinth_game.controller.game;
+
+import lombok.RequiredArgsConstructor;
+import max.iv.labyrinth_game.dto.geme.ReplaySummaryDTO;
+import max.iv.labyrinth_game.mappers.game.GameStateMapper;
+import max.iv.labyrinth_game.model.game.GameRecording;
+import max.iv.labyrinth_game.service.game.ReplayService;
+import max.iv.labyrinth_game.websocket.dto.GameStateUpdateDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/game/replays")
+@RequiredArgsConstructor
+public class ReplayController {
+    private final ReplayService replayService;
+    private final GameStateMapper gameStateMapper;
+
+    @GetMapping("/{roomId}")
+    public ResponseEntity<ReplaySummaryDTO> getReplay(@PathVariable String roomId) {
+        return replayService.findRecording(roomId)
+                .map(recording -> ResponseEntity.ok(toSummary(recording)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Состояние партии после turn ходов; 0 — стартовая раскладка
+    @GetMapping("/{roomId}/turns/{turn}")
+    public ResponseEntity<GameStateUpdateDTO> getStateAtTurn(@PathVariable String roomId, @PathVariable int turn) {
+        return replayService.findRecording(roomId)
+                .map(recording -> ResponseEntity.ok(gameStateMapper.toDto(replayService.replayAt(recording, turn))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ReplaySummaryDTO toSummary(GameRecording recording) {
+        List<String> playerNames = recording.snapshotAtOrBefore(0).players().stream()
+                .map(GameRecording.PlayerState::name)
+                .toList();
+        return new ReplaySummaryDTO(recording.getRoomId(), recording.getRoomName(), recording.getSeed(),
+                recording.getBoardSize(), playerNames, recording.getTurnCount(), recording.getActionBytes(),
+                recording.getSnapshotCount(), recording.getStartedAtMillis());
+    }
+}
@@ -0,0 +1,16 @@
+package max.iv.labyrinth_game.dto.geme;
+
+import java.util.List;
+
+public record ReplaySummaryDTO(
+        String roomId,
+        String roomName,
+        long seed,
+        int boardSize,
+        List<String> playerNames, // в порядке мест на старте партии
+        int turns,
+        int actionBytes,
+        int snapshots,
+        long startedAtMillis
+) {
+}
@@ -12,6 +12,7 @@ public enum ErrorType {
     ROOM_NOT_FOUND,
     ROOM_IS_FULL,
     GAME_ALREADY_STARTED,
+    ROOM_BUSY,
 
     // Ошибки, связанные с ходом
     NOT_YOUR_TURN,
@@ -3,6 +3,7 @@ package max.iv.labyrinth_game.mappers.game;
 import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.dto.geme.BoardDTO;
 import max.iv.labyrinth_game.dto.geme.PlayerDTO;
+import max.iv.labyrinth_game.model.game.BoardVersion;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Player;
 import max.iv.labyrinth_game.model.game.enums.GamePhase;
@@ -42,6 +43,8 @@ public class GameStateMapper {
                     Collections.emptyList(),
                     null,
                     null,
+                    null,
+                    null,
                     null
             );
         }
@@ -70,8 +73,9 @@ public class GameStateMapper {
 
         log.info("Итоговое количество PlayerDTO: " + playerDTOs.size());
         log.info("-----------------------------");
-        // Конвертируем доску
-        BoardDTO boardDTO = boardMapper.toDto(room.getBoard());
+        // Конвертируем доску: опубликованную версию, а не живую доску, которую может менять следующий ход
+        BoardVersion boardVersion = room.getBoardVersion();
+        BoardDTO boardDTO = boardMapper.toDto(boardVersion != null ? boardVersion.toBoard() : room.getBoard());
 
         // Определяем ID текущего игрока
         PlayerDTO currentplayer = null;
@@ -87,6 +91,11 @@ public class GameStateMapper {
             currentplayer = null; // В конце игры нет "текущего" игрока для хода
         }
 
+        int[] reachableCells = null;
+        if (room.getGamePhase() == GamePhase.PLAYER_MOVE && room.getReachableCells() != null) {
+            reachableCells = room.getReachableCells().stream().toArray();
+        }
+
         return new GameStateUpdateDTO(
                 GameMessageType.GAME_STATE_UPDATE, // Устанавливаем тип сообщения
                 room.getRoomId(),
@@ -96,7 +105,9 @@ public class GameStateMapper {
                 playerDTOs,
                 boardDTO,
                 winnerId,
-                winnerName
+                winnerName,
+                reachableCells,
+                Long.toHexString(room.getStateHash())
         );
     }
 }
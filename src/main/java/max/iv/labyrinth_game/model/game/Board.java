@@ -2,16 +2,40 @@ package max.iv.labyrinth_game.model.game;
 
 import lombok.Getter;
 import lombok.Setter;
+import max.iv.labyrinth_game.model.game.enums.TileType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-@Getter
-@Setter
+/**
+ * Поле хранится в параллельных примитивных массивах, индекс клетки — y * size + x.
+ * Последний слот (size * size) занимает запасной тайл. Cell и Tile, которые отдаёт доска, —
+ * лёгкие представления поверх этих массивов: все изменения через них сразу попадают в доску.
+ */
 public class Board {
+    private static final byte NO_TILE = -1;
+    private static final short NO_MARKER = -1;
+    private static final short NO_SLOT = -1;
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    @Getter
     private final int size;
-    private final Cell[][] grid;
-    @Setter private Tile extraTile;
+    @Getter
+    private final int extraSlot;
+    private final byte[] tileTypes;      // TileType.ordinal() или NO_TILE
+    private final byte[] orientations;
+    private final byte[] openSidesMasks; // маска тайла, а у клетки без тайла (база) — её фиксированные выходы
+    private final short[] markerIds;     // id маркера на тайле или на клетке без тайла
+    private final boolean[] stationary;
+    private Marker[] markersById = new Marker[0];
+    private short[] slotsByMarkerId = new short[0]; // где сейчас лежит маркер: слот или NO_SLOT; ведётся вместе с markerIds
+    private ConnectivityIndex connectivity; // строится лениво, сбрасывается при ручной раскладке тайлов
+    // Zobrist-хэш раскладки: тайлы, фиксированные выходы баз, маркеры и запасной тайл; ведётся при каждом изменении
+    @Getter
+    private long zobristHash;
+    @Getter
+    @Setter
     private List<Marker> allMarkersInGame;
 
     public Board(int boardSize) {
@@ -19,35 +43,316 @@ public class Board {
             throw new IllegalArgumentException("Board size must be a positive odd number. Received: " + boardSize);
         }
         this.size = boardSize;
-        this.grid = new Cell[this.size][this.size];
+        this.extraSlot = boardSize * boardSize;
+        int slots = extraSlot + 1;
+        this.tileTypes = new byte[slots];
+        this.orientations = new byte[slots];
+        this.openSidesMasks = new byte[slots];
+        this.markerIds = new short[slots];
+        this.stationary = new boolean[extraSlot];
+        Arrays.fill(tileTypes, NO_TILE);
+        Arrays.fill(markerIds, NO_MARKER);
         for (int y = 0; y < this.size; y++) {
             for (int x = 0; x < this.size; x++) {
                 // Логика определения стационарных ячеек (где x и y четные)
-                boolean isStationary = (x % 2 == 0 && y % 2 == 0);
-                grid[y][x] = new Cell(x, y, isStationary);
+                stationary[y * size + x] = (x % 2 == 0 && y % 2 == 0);
             }
         }
         this.allMarkersInGame = new ArrayList<>(); // Инициализируем
     }
 
+    // Независимая копия раскладки (маркеры общие) — для расчётов на черновой доске
+    public Board(Board source) {
+        this.size = source.size;
+        this.extraSlot = source.extraSlot;
+        this.tileTypes = source.tileTypes.clone();
+        this.orientations = source.orientations.clone();
+        this.openSidesMasks = source.openSidesMasks.clone();
+        this.markerIds = source.markerIds.clone();
+        this.stationary = source.stationary;
+        this.markersById = source.markersById.clone();
+        this.slotsByMarkerId = source.slotsByMarkerId.clone();
+        this.zobristHash = source.zobristHash;
+        this.allMarkersInGame = source.allMarkersInGame;
+    }
+
+    // Доска из упакованных слотов неизменяемой версии (см. BoardVersion.packSlot)
+    Board(int boardSize, boolean[] stationary, int[] packedSlots, Marker[] markersById, long zobristHash,
+          List<Marker> allMarkersInGame) {
+        this.size = boardSize;
+        this.extraSlot = boardSize * boardSize;
+        int slots = extraSlot + 1;
+        this.tileTypes = new byte[slots];
+        this.orientations = new byte[slots];
+        this.openSidesMasks = new byte[slots];
+        this.markerIds = new short[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            int packed = packedSlots[slot];
+            tileTypes[slot] = (byte) ((packed & 0xF) - 1);
+            orientations[slot] = (byte) ((packed >>> 4) & 0b11);
+            openSidesMasks[slot] = (byte) ((packed >>> 6) & 0xF);
+            markerIds[slot] = (short) ((packed >>> 10) - 1);
+        }
+        this.stationary = stationary;
+        this.markersById = markersById;
+        this.slotsByMarkerId = new short[markersById.length];
+        Arrays.fill(slotsByMarkerId, NO_SLOT);
+        for (int slot = 0; slot < slots; slot++) {
+            if (markerIds[slot] != NO_MARKER) {
+                slotsByMarkerId[markerIds[slot]] = (short) slot;
+            }
+        }
+        this.zobristHash = zobristHash;
+        this.allMarkersInGame = allMarkersInGame;
+    }
+
+    // Слот одним int: тип + 1 (4 бита), ориентация (2), маска выходов (4), id маркера + 1 (16)
+    int packSlot(int slot) {
+        return (tileTypes[slot] + 1) | orientations[slot] << 4 | openSidesMasks[slot] << 6 | (markerIds[slot] + 1) << 10;
+    }
+
+    boolean[] stationaryCells() {
+        return stationary;
+    }
+
+    Marker[] markersById() {
+        return markersById;
+    }
+
     public Cell getCell(int x, int y) {
-        if (x < 0 || x >= this.size || y < 0 || y >= this.size) {
+        if (!isValidCoordinate(x, y)) {
             return null;
         }
-        return grid[y][x];
+        return new Cell(this, x, y);
     }
 
     // Метод для проверки, находится ли ячейка в пределах поля
     public boolean isValidCoordinate(int x, int y) {
-        return x < 0 || x >= size || y < 0 || y >= size;
+        return x >= 0 && x < size && y >= 0 && y < size;
     }
     public List<Cell> getAllCells() {
-        List<Cell> allCells = new ArrayList<>();
+        List<Cell> allCells = new ArrayList<>(extraSlot);
         for (int y = 0; y < size; y++) {
             for (int x = 0; x < size; x++) {
-                allCells.add(getCell(x, y));
+                allCells.add(new Cell(this, x, y));
             }
         }
         return allCells;
     }
+
+    public Tile getExtraTile() {
+        return getTile(extraSlot);
+    }
+
+    public void setExtraTile(Tile tile) {
+        setTile(extraSlot, tile);
+    }
+
+    // --- Доступ по индексу слота: y * size + x для клеток, extraSlot для запасного тайла ---
+
+    public boolean hasTile(int slot) {
+        return tileTypes[slot] != NO_TILE;
+    }
+
+    public ConnectivityIndex getConnectivity() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex(this);
+        }
+        return connectivity;
+    }
+
+    public TileType getTileType(int slot) {
+        byte type = tileTypes[slot];
+        return type == NO_TILE ? null : TILE_TYPES[type];
+    }
+
+    public int getTileOrientation(int slot) {
+        return orientations[slot];
+    }
+
+    public int getOpenSidesMask(int slot) {
+        return openSidesMasks[slot];
+    }
+
+    public boolean isStationary(int cellIndex) {
+        return stationary[cellIndex];
+    }
+
+    public Marker getMarker(int slot) {
+        short id = markerIds[slot];
+        return id == NO_MARKER ? null : markersById[id];
+    }
+
+    // Слот, где сейчас лежит маркер (клетка или extraSlot), или -1, если его нет на доске (собран)
+    public int getMarkerSlot(int markerId) {
+        return markerId >= 0 && markerId < slotsByMarkerId.length ? slotsByMarkerId[markerId] : NO_SLOT;
+    }
+
+    public void setMarker(int slot, Marker marker) {
+        zobristHash ^= slotHash(slot);
+        unindexMarker(slot);
+        if (marker == null) {
+            markerIds[slot] = NO_MARKER;
+        } else {
+            int id = marker.getId();
+            if (id >= markersById.length) {
+                int oldLength = markersById.length;
+                markersById = Arrays.copyOf(markersById, id + 1);
+                slotsByMarkerId = Arrays.copyOf(slotsByMarkerId, id + 1);
+                Arrays.fill(slotsByMarkerId, oldLength, id + 1, NO_SLOT);
+            }
+            markersById[id] = marker;
+            markerIds[slot] = (short) id;
+            slotsByMarkerId[id] = (short) slot;
+        }
+        zobristHash ^= slotHash(slot);
+    }
+
+    // Маркер в слоте больше не числится там; сам слот не трогаем
+    private void unindexMarker(int slot) {
+        if (slot == NO_SLOT) return;
+        short id = markerIds[slot];
+        if (id != NO_MARKER && slotsByMarkerId[id] == slot) {
+            slotsByMarkerId[id] = NO_SLOT;
+        }
+    }
+
+    /**
+     * Сдвигает линию на одну клетку: слот insertSlot получает запасной тайл, каждый следующий
+     * (с шагом step) — содержимое предыдущего, а выпавший последний тайл становится запасным.
+     * Для рядов (step = ±1) это один System.arraycopy на массив, для колонок — один проход с шагом size.
+     */
+    public void rotateLine(int insertSlot, int step, int length) {
+        int outgoingSlot = insertSlot + (length - 1) * step;
+        zobristHash ^= lineHash(insertSlot, step, length);
+        rotate(tileTypes, insertSlot, outgoingSlot, step, length);
+        rotate(orientations, insertSlot, outgoingSlot, step, length);
+        rotate(openSidesMasks, insertSlot, outgoingSlot, step, length);
+        rotate(markerIds, insertSlot, outgoingSlot, step, length);
+        reindexMarkers(insertSlot, step, length);
+        zobristHash ^= lineHash(insertSlot, step, length);
+        boolean row = step == 1 || step == -1;
+        int lineIndex = row ? insertSlot / size : insertSlot % size;
+        if (connectivity != null) {
+            connectivity.lineShifted(row, lineIndex);
+        }
+    }
+
+    // После сдвига маркеры линии и запасного слота переехали: обновляем только их записи в индексе
+    private void reindexMarkers(int insertSlot, int step, int length) {
+        if (markerIds[extraSlot] != NO_MARKER) {
+            slotsByMarkerId[markerIds[extraSlot]] = (short) extraSlot;
+        }
+        for (int i = 0, slot = insertSlot; i < length; i++, slot += step) {
+            if (markerIds[slot] != NO_MARKER) {
+                slotsByMarkerId[markerIds[slot]] = (short) slot;
+            }
+        }
+    }
+
+    // Вклад линии и запасного слота в хэш — снимается до сдвига и добавляется после
+    private long lineHash(int insertSlot, int step, int length) {
+        long hash = slotHash(extraSlot);
+        for (int i = 0, slot = insertSlot; i < length; i++, slot += step) {
+            hash ^= slotHash(slot);
+        }
+        return hash;
+    }
+
+    private long slotHash(int slot) {
+        long hash = 0;
+        if (tileTypes[slot] != NO_TILE) {
+            hash = Zobrist.tileKey(slot, tileTypes[slot], orientations[slot]);
+        } else if (openSidesMasks[slot] != 0) {
+            hash = Zobrist.fixedSidesKey(slot, openSidesMasks[slot]);
+        }
+        if (markerIds[slot] != NO_MARKER) {
+            hash ^= Zobrist.markerKey(slot, markerIds[slot]);
+        }
+        return hash;
+    }
+
+    private void rotate(byte[] values, int insertSlot, int outgoingSlot, int step, int length) {
+        byte outgoing = values[outgoingSlot];
+        if (step == 1) {
+            System.arraycopy(values, insertSlot, values, insertSlot + 1, length - 1);
+        } else if (step == -1) {
+            System.arraycopy(values, outgoingSlot + 1, values, outgoingSlot, length - 1);
+        } else {
+            for (int slot = outgoingSlot; slot != insertSlot; slot -= step) {
+                values[slot] = values[slot - step];
+            }
+        }
+        values[insertSlot] = values[extraSlot];
+        values[extraSlot] = outgoing;
+    }
+
+    private void rotate(short[] values, int insertSlot, int outgoingSlot, int step, int length) {
+        short outgoing = values[outgoingSlot];
+        if (step == 1) {
+            System.arraycopy(values, insertSlot, values, insertSlot + 1, length - 1);
+        } else if (step == -1) {
+            System.arraycopy(values, outgoingSlot + 1, values, outgoingSlot, length - 1);
+        } else {
+            for (int slot = outgoingSlot; slot != insertSlot; slot -= step) {
+                values[slot] = values[slot - step];
+            }
+        }
+        values[insertSlot] = values[extraSlot];
+        values[extraSlot] = outgoing;
+    }
+
+    Tile getTile(int slot) {
+        return hasTile(slot) ? new Tile(this, slot) : null;
+    }
+
+    // Копирует значения тайла в слот; сам объект Tile доска не запоминает
+    void setTile(int slot, Tile tile) {
+        if (tile == null) {
+            zobristHash ^= slotHash(slot);
+            unindexMarker(slot);
+            tileTypes[slot] = NO_TILE;
+            orientations[slot] = 0;
+            openSidesMasks[slot] = 0;
+            markerIds[slot] = NO_MARKER;
+            shapeChanged(slot);
+            return;
+        }
+        TileType type = tile.getType();
+        int orientation = tile.getOrientation();
+        Marker marker = tile.getMarker();
+        setTileShape(slot, type, orientation);
+        setMarker(slot, marker);
+    }
+
+    // Форма тайла прямо в массивы, без промежуточного Tile; маркер слота не меняется, ориентация уже нормализована
+    public void setTileShape(int slot, TileType type, int orientation) {
+        zobristHash ^= slotHash(slot);
+        tileTypes[slot] = type == null ? NO_TILE : (byte) type.ordinal();
+        orientations[slot] = (byte) orientation;
+        openSidesMasks[slot] = (byte) (type == null ? 0 : type.getOpenSidesMask(orientation));
+        zobristHash ^= slotHash(slot);
+        shapeChanged(slot);
+    }
+
+    int getFixedOpenSidesMask(int cellIndex) {
+        return hasTile(cellIndex) ? 0 : openSidesMasks[cellIndex];
+    }
+
+    void setFixedOpenSidesMask(int cellIndex, int mask) {
+        if (!hasTile(cellIndex)) {
+            zobristHash ^= slotHash(cellIndex);
+            openSidesMasks[cellIndex] = (byte) mask;
+            zobristHash ^= slotHash(cellIndex);
+            shapeChanged(cellIndex);
+        }
+    }
+
+    // Ручная смена тайла: индекс связности строится заново
+    private void shapeChanged(int slot) {
+        if (slot == extraSlot) {
+            return;
+        }
+        connectivity = null;
+    }
 }
@@ -0,0 +1,114 @@
+package max.iv.labyrinth_game.model.game;
+
+import lombok.Getter;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Неизменяемая версия доски для читателей (рассылка, повторы, поиск бота), пока живая Board меняется.
+ * Версия — либо полная упаковка всех слотов, либо дельта к предыдущей: только слоты, изменённые
+ * сдвигом (линия и запасной тайл) или сбором маркера; остальные ряды и колонки общие с предыдущими
+ * версиями. Каждая FULL_EVERY-я версия полная, поэтому цепочка дельт короткая, а история из N версий
+ * стоит примерно N / FULL_EVERY полных копий плюс N линий.
+ */
+public final class BoardVersion {
+
+    static final int FULL_EVERY = 8;
+
+    @Getter
+    private final long number;
+    @Getter
+    private final int size;
+    @Getter
+    private final long zobristHash;
+    private final BoardVersion parent; // null у полной версии
+    private final int depth;           // число дельт до ближайшей полной версии
+    private final int[] slots;         // изменённые слоты дельты; null у полной версии
+    private final int[] values;        // упакованные слоты (Board.packSlot)
+    private final boolean[] stationary;
+    private final Marker[] markersById;
+    private final List<Marker> allMarkersInGame;
+
+    private BoardVersion(long number, Board board, BoardVersion parent, int[] slots, int[] values, Marker[] markersById) {
+        this.number = number;
+        this.size = board.getSize();
+        this.zobristHash = board.getZobristHash();
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.slots = slots;
+        this.values = values;
+        this.stationary = board.stationaryCells();
+        this.markersById = markersById;
+        this.allMarkersInGame = board.getAllMarkersInGame();
+    }
+
+    public static BoardVersion of(Board board) {
+        return full(0, board);
+    }
+
+    private static BoardVersion full(long number, Board board) {
+        int[] values = new int[board.getExtraSlot() + 1];
+        for (int slot = 0; slot < values.length; slot++) {
+            values[slot] = board.packSlot(slot);
+        }
+        return new BoardVersion(number, board, null, null, values, board.markersById().clone());
+    }
+
+    // Следующая версия после сдвига линии: меняются её клетки и запасной тайл
+    public BoardVersion afterShift(Board board, int shiftIndex, Direction direction) {
+        int size = board.getSize();
+        boolean column = direction == Direction.NORTH || direction == Direction.SOUTH;
+        int[] changed = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            changed[i] = column ? i * size + shiftIndex : shiftIndex * size + i;
+        }
+        changed[size] = board.getExtraSlot();
+        return withChanges(board, changed);
+    }
+
+    // Следующая версия, в которой у живой доски изменились только перечисленные слоты
+    public BoardVersion withChanges(Board board, int... changedSlots) {
+        if (board.getSize() != size) {
+            throw new IllegalArgumentException("Board size changed from " + size + " to " + board.getSize());
+        }
+        if (depth + 1 >= FULL_EVERY || board.markersById().length != markersById.length) {
+            return full(number + 1, board);
+        }
+        int[] changedValues = new int[changedSlots.length];
+        for (int i = 0; i < changedSlots.length; i++) {
+            changedValues[i] = board.packSlot(changedSlots[i]);
+        }
+        return new BoardVersion(number + 1, board, this, changedSlots.clone(), changedValues, markersById);
+    }
+
+    /**
+     * Независимая изменяемая доска с содержимым этой версии: полная упаковка плюс дельты по порядку.
+     */
+    public Board toBoard() {
+        Deque<BoardVersion> chain = new ArrayDeque<>(depth + 1);
+        BoardVersion version = this;
+        while (version.parent != null) {
+            chain.push(version);
+            version = version.parent;
+        }
+        int[] packed = version.values.clone();
+        for (BoardVersion delta : chain) {
+            for (int i = 0; i < delta.slots.length; i++) {
+                packed[delta.slots[i]] = delta.values[i];
+            }
+        }
+        return new Board(size, stationary, packed, markersById.clone(), zobristHash, allMarkersInGame);
+    }
+
+    // Сколько упакованных слотов хранит сама версия (без общих с предками)
+    public int ownSlotCount() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return parent == null;
+    }
+}
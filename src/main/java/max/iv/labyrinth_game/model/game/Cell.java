@@ -1,55 +1,80 @@
 package max.iv.labyrinth_game.model.game;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 import max.iv.labyrinth_game.model.game.enums.Direction;
 
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
-@Setter
-@Getter
-@AllArgsConstructor
+// Представление клетки поверх массивов Board; сама клетка ничего, кроме координат, не хранит
 public class Cell {
+    private final Board board;
+    @Getter
     private final int x;
+    @Getter
     private final int y;
-    private final boolean isStationary;
-    private Tile tile;
-    private Marker stationaryMarker;
-    private Set<Direction> fixedOpenSides = new HashSet<>();
 
-    public Cell(int x, int y, boolean isStationary) {
+    Cell(Board board, int x, int y) {
+        this.board = board;
         this.x = x;
         this.y = y;
-        this.isStationary = isStationary;
     }
 
-    public Set<Direction> getOpenSides() {
-        if (tile != null) {
-            return tile.getOpenSides();
+    public int getIndex() {
+        return y * board.getSize() + x;
+    }
+
+    public boolean isStationary() {
+        return board.isStationary(getIndex());
+    }
+
+    public Tile getTile() {
+        return board.getTile(getIndex());
+    }
+
+    public void setTile(Tile tile) {
+        board.setTile(getIndex(), tile);
+    }
+
+    // Маркер клетки без тайла (база)
+    public Marker getStationaryMarker() {
+        int index = getIndex();
+        return board.hasTile(index) ? null : board.getMarker(index);
+    }
+
+    public void setStationaryMarker(Marker marker) {
+        int index = getIndex();
+        if (!board.hasTile(index)) {
+            board.setMarker(index, marker);
         }
-        return fixedOpenSides != null ? fixedOpenSides : Collections.emptySet();
+    }
+
+    // Открытые стороны клетки без тайла (база), биты Direction.getMask()
+    public int getFixedOpenSidesMask() {
+        return board.getFixedOpenSidesMask(getIndex());
+    }
+
+    public void setFixedOpenSidesMask(int fixedOpenSidesMask) {
+        board.setFixedOpenSidesMask(getIndex(), fixedOpenSidesMask);
+    }
+
+    public int getOpenSidesMask() {
+        return board.getOpenSidesMask(getIndex());
+    }
+
+    public Set<Direction> getOpenSides() {
+        return Direction.fromMask(getOpenSidesMask());
     }
 
     public boolean connectsTo(Direction direction) {
-        return getOpenSides().contains(direction);
+        return (getOpenSidesMask() & direction.getMask()) != 0;
     }
 
+    // На клетке хранится не больше одного маркера: на тайле или, если тайла нет, на самой клетке
     public Marker getActiveMarker() {
-        if (this.tile != null && this.tile.getMarker() != null) {
-            return this.tile.getMarker();
-        }
-        return this.stationaryMarker;
+        return board.getMarker(getIndex());
     }
 
     public void removeActiveMarker() {
-        if (this.tile != null && this.tile.getMarker() != null) {
-            this.tile.setMarker(null); // Предполагаем, что у Tile есть setMarker(Marker marker)
-        }
-        else if (this.stationaryMarker != null) {
-            this.stationaryMarker = null;
-        }
+        board.setMarker(getIndex(), null);
     }
 }
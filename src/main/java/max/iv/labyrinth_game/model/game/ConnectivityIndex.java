@@ -0,0 +1,144 @@
+package max.iv.labyrinth_game.model.game;
+
+import max.iv.labyrinth_game.model.game.enums.Direction;
+
+import java.util.BitSet;
+
+/**
+ * Компоненты связности доски: у каждой клетки метка компоненты, связанные проходами клетки
+ * имеют одинаковую метку. Индекс живёт внутри Board и после сдвига пересчитывает только те
+ * компоненты, что касались полосы «сдвинутая линия ± соседние линии»: остальные рёбра графа не менялись.
+ */
+public class ConnectivityIndex {
+    private static final int[] DX = new int[4];
+    private static final int[] DY = new int[4];
+    private static final int[] SIDE_MASK = new int[4];
+    private static final int[] OPPOSITE_SIDE_MASK = new int[4];
+
+    static {
+        for (Direction direction : Direction.values()) {
+            int d = direction.ordinal();
+            DX[d] = direction.getDx();
+            DY[d] = direction.getDy();
+            SIDE_MASK[d] = direction.getMask();
+            OPPOSITE_SIDE_MASK[d] = direction.opposite().getMask();
+        }
+    }
+
+    private final Board board;
+    private final int size;
+    private final int[] labels;
+    private final int[] componentSizes; // по метке
+    private final int[] freeLabels;     // стек свободных меток
+    private int freeCount;
+    private final int[] queue;
+    private final int[] stamps;         // эпоха последнего пересчёта клетки
+    private final int[] labelStamps;    // эпоха, в которой метка уже освобождена
+    private int epoch;
+
+    ConnectivityIndex(Board board) {
+        this.board = board;
+        this.size = board.getSize();
+        int cellCount = size * size;
+        this.labels = new int[cellCount];
+        this.componentSizes = new int[cellCount];
+        this.freeLabels = new int[cellCount];
+        this.queue = new int[cellCount];
+        this.stamps = new int[cellCount];
+        this.labelStamps = new int[cellCount];
+        rebuild();
+    }
+
+    public boolean areConnected(int cellA, int cellB) {
+        return labels[cellA] == labels[cellB];
+    }
+
+    // Метка компоненты клетки: в пределах [0, size * size), стабильна только до следующего сдвига
+    public int getComponentLabel(int cell) {
+        return labels[cell];
+    }
+
+    public int getComponentSize(int cell) {
+        return componentSizes[labels[cell]];
+    }
+
+    // Все клетки компоненты (включая саму клетку); проход по массиву меток
+    public BitSet cellsConnectedTo(int cell) {
+        int label = labels[cell];
+        BitSet result = new BitSet(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == label) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    void rebuild() {
+        freeCount = 0;
+        for (int label = labels.length - 1; label >= 0; label--) {
+            freeLabels[freeCount++] = label;
+        }
+        epoch++;
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (stamps[cell] != epoch) {
+                flood(cell);
+            }
+        }
+    }
+
+    // Сдвинута линия lineIndex (ряд, если row == true, иначе колонка)
+    void lineShifted(boolean row, int lineIndex) {
+        epoch++;
+        int from = Math.max(0, lineIndex - 1);
+        int to = Math.min(size - 1, lineIndex + 1);
+        // Метки пока позиционные и старые: освобождаем все компоненты, задевавшие полосу
+        for (int line = from; line <= to; line++) {
+            for (int i = 0; i < size; i++) {
+                int label = labels[row ? line * size + i : i * size + line];
+                if (labelStamps[label] != epoch) {
+                    labelStamps[label] = epoch;
+                    componentSizes[label] = 0;
+                    freeLabels[freeCount++] = label;
+                }
+            }
+        }
+        // Каждая клетка освобождённых компонент связана с полосой неизменившимися рёбрами,
+        // поэтому заливки из клеток полосы покрывают их все и не заходят в чужие компоненты
+        for (int line = from; line <= to; line++) {
+            for (int i = 0; i < size; i++) {
+                int cell = row ? line * size + i : i * size + line;
+                if (stamps[cell] != epoch) {
+                    flood(cell);
+                }
+            }
+        }
+    }
+
+    private void flood(int start) {
+        int label = freeLabels[--freeCount];
+        int head = 0;
+        int tail = 0;
+        stamps[start] = epoch;
+        queue[tail++] = start;
+        while (head != tail) {
+            int current = queue[head++];
+            labels[current] = label;
+            int cx = current % size;
+            int cy = current / size;
+            int openSides = board.getOpenSidesMask(current);
+            for (int d = 0; d < 4; d++) {
+                if ((openSides & SIDE_MASK[d]) == 0) continue;
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (nx < 0 || ny < 0 || nx >= size || ny >= size) continue;
+                int next = ny * size + nx;
+                if (stamps[next] == epoch) continue;
+                if ((board.getOpenSidesMask(next) & OPPOSITE_SIDE_MASK[d]) == 0) continue;
+                stamps[next] = epoch;
+                queue[tail++] = next;
+            }
+        }
+        componentSizes[label] = tail;
+    }
+}
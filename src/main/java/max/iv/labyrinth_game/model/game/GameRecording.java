@@ -0,0 +1,175 @@
+package max.iv.labyrinth_game.model.game;
+
+import lombok.Getter;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.model.game.enums.PlayerAvatar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Запись партии: сид, снимки состояния через каждые несколько ходов (нулевой — стартовая раскладка)
+ * и компактный поток действий. Действие кодируется первым байтом: два старших бита — операция,
+ * следующие четыре — место игрока, два младших — направление сдвига. Сдвиг занимает 2 байта
+ * (плюс индекс линии), перемещение — 3 (плюс x и y), выбывание игрока и конец партии — 1.
+ * Ход (turn) — одно перемещение; N-й ход закончен, когда записано N перемещений.
+ */
+public class GameRecording {
+
+    public static final int OP_SHIFT = 0;
+    public static final int OP_MOVE = 1;
+    public static final int OP_REMOVE = 2;
+    public static final int OP_END = 3;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Getter
+    private final String roomId;
+    @Getter
+    private final String roomName;
+    @Getter
+    private final int maxPlayers;
+    @Getter
+    private final long seed;
+    @Getter
+    private final int boardSize;
+    @Getter
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final List<Snapshot> snapshots = new ArrayList<>();
+    private byte[] actions = new byte[64];
+    private int length;
+    private int turnCount;
+
+    /**
+     * Состояние игрока на момент снимка; маркеры копируются, остальное неизменяемо.
+     */
+    public record PlayerState(UUID id, String name, PlayerAvatar avatar, Base base, int x, int y,
+                              Set<Integer> targetMarkerIds, Set<Integer> collectedMarkerIds, boolean bot) {
+
+        public static PlayerState of(Player player) {
+            return new PlayerState(player.getId(), player.getName(), player.getAvatar(), player.getBase(),
+                    player.getCurrentX(), player.getCurrentY(), Set.copyOf(player.getTargetMarkerIds()),
+                    Set.copyOf(player.getCollectedMarkerIds()), player.isBot());
+        }
+
+        public Player toPlayer() {
+            Player player = new Player(id, name, avatar, base);
+            player.moveTo(x, y);
+            player.setTargetMarkerIds(new HashSet<>(targetMarkerIds));
+            player.setCollectedMarkerIds(new HashSet<>(collectedMarkerIds));
+            player.setBot(bot);
+            return player;
+        }
+    }
+
+    /**
+     * Полное состояние партии после turn ходов; actionOffset — позиция в потоке, с которой продолжать.
+     * Доска — неизменяемая версия, общая с историей комнаты, если она совпадает с живой доской.
+     */
+    public record Snapshot(int turn, int actionOffset, BoardVersion board, List<PlayerState> players,
+                           int currentPlayerIndex, GamePhase phase, UUID winnerId) {
+    }
+
+    public GameRecording(String roomId, String roomName, int maxPlayers, long seed, int boardSize) {
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.maxPlayers = maxPlayers;
+        this.seed = seed;
+        this.boardSize = boardSize;
+    }
+
+    public synchronized void recordShift(int seat, int shiftIndex, Direction direction) {
+        append(header(OP_SHIFT, seat, direction.ordinal()), shiftIndex);
+    }
+
+    public synchronized void recordMove(int seat, int x, int y) {
+        append(header(OP_MOVE, seat, 0), x, y);
+        turnCount++;
+    }
+
+    public synchronized void recordRemoval(int seat) {
+        append(header(OP_REMOVE, seat, 0));
+    }
+
+    public synchronized void recordEnd() {
+        append(header(OP_END, 0, 0));
+    }
+
+    public synchronized void addSnapshot(GameRoom room) {
+        List<PlayerState> players = room.getPlayers().stream().map(PlayerState::of).toList();
+        UUID winnerId = room.getWinner() != null ? room.getWinner().getId() : null;
+        BoardVersion board = room.getBoardVersion();
+        if (board == null || board.getZobristHash() != room.getBoard().getZobristHash()) {
+            board = BoardVersion.of(room.getBoard());
+        }
+        snapshots.add(new Snapshot(turnCount, length, board, players,
+                room.getCurrentPlayerIndex(), room.getGamePhase(), winnerId));
+    }
+
+    public synchronized int getTurnCount() {
+        return turnCount;
+    }
+
+    public synchronized int getActionBytes() {
+        return length;
+    }
+
+    public synchronized int getSnapshotCount() {
+        return snapshots.size();
+    }
+
+    // Последний снимок не позже хода turn
+    public synchronized Snapshot snapshotAtOrBefore(int turn) {
+        Snapshot best = snapshots.get(0);
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.turn() > turn) break;
+            best = snapshot;
+        }
+        return best;
+    }
+
+    public synchronized byte[] actionsFrom(int offset) {
+        return Arrays.copyOfRange(actions, offset, length);
+    }
+
+    public static int operation(byte header) {
+        return (header >> 6) & 0b11;
+    }
+
+    public static int seat(byte header) {
+        return (header >> 2) & 0b1111;
+    }
+
+    public static Direction direction(byte header) {
+        return DIRECTIONS[header & 0b11];
+    }
+
+    // Длина действия в байтах по его первому байту
+    public static int actionLength(byte header) {
+        return switch (operation(header)) {
+            case OP_SHIFT -> 2;
+            case OP_MOVE -> 3;
+            default -> 1;
+        };
+    }
+
+    private static int header(int operation, int seat, int direction) {
+        if (seat < 0 || seat > 0b1111) {
+            throw new IllegalArgumentException("Seat does not fit into a recorded action: " + seat);
+        }
+        return operation << 6 | seat << 2 | direction;
+    }
+
+    private void append(int... bytes) {
+        if (length + bytes.length > actions.length) {
+            actions = Arrays.copyOf(actions, actions.length * 2);
+        }
+        for (int value : bytes) {
+            actions[length++] = (byte) value;
+        }
+    }
+}
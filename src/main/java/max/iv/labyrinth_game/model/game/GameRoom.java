@@ -1,12 +1,17 @@
 package max.iv.labyrinth_game.model.game;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import max.iv.labyrinth_game.model.game.enums.GamePhase;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Getter
 @Setter
@@ -19,9 +24,29 @@ public class GameRoom {
     private GamePhase gamePhase;
     private Player winner;
     private int maxPlayers;
+    private int boardSize; // 0 — размер из board-layout.json
+    // Клетки (y * size + x), куда текущий игрок может пойти после своего сдвига; null — не рассчитано
+    private BitSet reachableCells;
+    // Подсказка для состояния с хэшем hintStateHash (см. HintService); читается и пишется под блокировкой комнаты
+    private CompletableFuture<MoveHint> hint;
+    private long hintStateHash;
+    private final long createdAtMillis = System.currentTimeMillis();
+    // Сид генератора партии: по нему раскладка и первый игрок воспроизводятся точно; 0 — выбрать при старте
+    private long seed;
+    private GameRecording recording; // null — партия ещё не началась
+    // Последняя опубликованная неизменяемая версия доски; читается без блокировки комнаты
+    @Setter(AccessLevel.NONE)
+    private volatile BoardVersion boardVersion;
+    private final Deque<BoardVersion> boardHistory = new ArrayDeque<>(BOARD_HISTORY_SIZE);
+
+    public static final int BOARD_HISTORY_SIZE = 16;
 
     public GameRoom(int maxPlayers,String roomName) {
-        this.roomId = UUID.randomUUID().toString().substring(0, 8);
+        this(UUID.randomUUID().toString().substring(0, 8), maxPlayers, roomName);
+    }
+
+    public GameRoom(String roomId, int maxPlayers, String roomName) {
+        this.roomId = roomId;
         this.players = new ArrayList<>();
         this.gamePhase = GamePhase.WAITING_FOR_PLAYERS;
         this.maxPlayers = maxPlayers;
@@ -35,19 +60,61 @@ public class GameRoom {
         return players.get(currentPlayerIndex);
     }
 
+    public void setCurrentPlayerIndex(int currentPlayerIndex) {
+        this.currentPlayerIndex = currentPlayerIndex;
+        invalidateReachableCells();
+    }
+
+    // Версия попадает в историю и становится видна читателям одной записью volatile-поля
+    public void publishBoardVersion(BoardVersion version) {
+        synchronized (boardHistory) {
+            if (boardHistory.size() == BOARD_HISTORY_SIZE) {
+                boardHistory.removeFirst();
+            }
+            boardHistory.addLast(version);
+        }
+        this.boardVersion = version;
+    }
+
+    // Последние версии доски, от старой к новой
+    public List<BoardVersion> getBoardHistory() {
+        synchronized (boardHistory) {
+            return List.copyOf(boardHistory);
+        }
+    }
+
+    public void invalidateReachableCells() {
+        this.reachableCells = null;
+    }
+
     public void addPlayer(Player player) {
         if (players.size() < maxPlayers) {
             this.players.add(player);
         }
     }
 
+    public boolean hasHumanPlayers() {
+        return players.stream().anyMatch(p -> !p.isBot());
+    }
+
+    // Zobrist-хэш партии: хэш доски (ведётся самой доской) плюс позиции игроков по местам, чей ход и фаза
+    public long getStateHash() {
+        long hash = board != null ? board.getZobristHash() : 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            hash ^= Zobrist.playerKey(seat, player.getCurrentX(), player.getCurrentY());
+        }
+        hash ^= Zobrist.currentPlayerKey(currentPlayerIndex);
+        return hash ^ Zobrist.phaseKey(gamePhase.ordinal());
+    }
+
     public boolean isFull() {
         return players.size() >= maxPlayers;
     }
 
     public void nextTurn() {
         if (players.isEmpty()) return;
-        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        setCurrentPlayerIndex((currentPlayerIndex + 1) % players.size());
         this.gamePhase = GamePhase.PLAYER_SHIFT;
     }
     public int getCurrentPlayersCount(){
@@ -0,0 +1,12 @@
+package max.iv.labyrinth_game.model.game;
+
+import max.iv.labyrinth_game.model.game.enums.Direction;
+
+/**
+ * Подсказка хода: shiftIndex и direction равны null, если сдвиг в этом ходу уже сделан.
+ * reachesGoal — после хода игрок стоит на цели; complete = false — срок расчёта истёк раньше,
+ * чем были перебраны все сдвиги, и подсказка лучшая из просмотренных.
+ */
+public record MoveHint(Integer shiftIndex, Direction direction, int targetX, int targetY,
+                       boolean reachesGoal, boolean complete) {
+}
@@ -26,6 +26,7 @@ public class Player {
     // Базовые координаты (где игрок начинает)
     private  Base base;
     private PlayerStatus status = PlayerStatus.CONNECTED;
+    private boolean bot; // Ходы за игрока делает BotService
 
 
     public Player(UUID id, String name, PlayerAvatar avatar, Base base) {
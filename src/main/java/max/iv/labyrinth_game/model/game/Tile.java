@@ -1,80 +1,99 @@
 package max.iv.labyrinth_game.model.game;
 
-import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.Setter;
 import max.iv.labyrinth_game.model.game.enums.Direction;
 import max.iv.labyrinth_game.model.game.enums.TileType;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
 
-@Getter
-@Setter
+/**
+ * Тайл либо самостоятельный (создан через конструктор, ещё не лежит на доске),
+ * либо представление слота Board — тогда чтение и запись идут прямо в массивы доски.
+ */
 @NoArgsConstructor
 public class Tile {
+    private Board board;
+    private int slot;
     private TileType type;
     private int orientation;
     private Marker marker;
+    private int openSidesMask;
+
     public Tile(TileType type, int orientation, Marker marker) {
         this.type = type;
-        this.orientation = (type == TileType.STRAIGHT) ? orientation % 2 : orientation % 4; // Для прямого только 2 ориентации
+        this.orientation = normalizeOrientation(type, orientation);
         this.marker = marker;
+        this.openSidesMask = computeOpenSidesMask();
     }
     public Tile(TileType type, int orientation) { // Конструктор без маркера
         this(type, orientation, null);
     }
 
+    Tile(Board board, int slot) {
+        this.board = board;
+        this.slot = slot;
+    }
 
-    // Метод для получения открытых сторон в зависимости от типа и ориентации
-    // Возвращает Set<Direction> для удобства проверки
-    public Set<Direction> getOpenSides() {
-        Set<Direction> open = new HashSet<>();
-        switch (type) {
-            case STRAIGHT -> {
-                if (orientation == 0) { // Вертикальный
-                    open.add(Direction.NORTH);
-                    open.add(Direction.SOUTH);
-                } else { // Горизонтальный (orientation == 1)
-                    open.add(Direction.EAST);
-                    open.add(Direction.WEST);
-                }
-            }
-            case CORNER -> {
-                // 0: N-E, 1: E-S, 2: S-W, 3: W-N
-                if (orientation == 0) {
-                    open.add(Direction.NORTH);
-                    open.add(Direction.EAST);
-                } else if (orientation == 1) {
-                    open.add(Direction.EAST);
-                    open.add(Direction.SOUTH);
-                } else if (orientation == 2) {
-                    open.add(Direction.SOUTH);
-                    open.add(Direction.WEST);
-                } else {
-                    open.add(Direction.WEST);
-                    open.add(Direction.NORTH);
-                } // orientation == 3
-            }
-            case T_SHAPED -> {
-                // 0: N-E-W (нет S), 1: N-E-S (нет W), 2: E-S-W (нет N), 3: N-S-W (нет E)
-                if (orientation == 0) {
-                    open.addAll(Arrays.asList(Direction.NORTH, Direction.EAST, Direction.WEST));
-                } else if (orientation == 1) {
-                    open.addAll(Arrays.asList(Direction.NORTH, Direction.EAST, Direction.SOUTH));
-                } else if (orientation == 2) {
-                    open.addAll(Arrays.asList(Direction.EAST, Direction.SOUTH, Direction.WEST));
-                } else {
-                    open.addAll(Arrays.asList(Direction.NORTH, Direction.SOUTH, Direction.WEST));
-                } // orientation == 3
-            }
+    public TileType getType() {
+        return board != null ? board.getTileType(slot) : type;
+    }
+
+    public int getOrientation() {
+        return board != null ? board.getTileOrientation(slot) : orientation;
+    }
+
+    public Marker getMarker() {
+        return board != null ? board.getMarker(slot) : marker;
+    }
+
+    public int getOpenSidesMask() {
+        return board != null ? board.getOpenSidesMask(slot) : openSidesMask;
+    }
+
+    public void setType(TileType type) {
+        int normalized = normalizeOrientation(type, getOrientation());
+        if (board != null) {
+            board.setTileShape(slot, type, normalized);
+            return;
+        }
+        this.type = type;
+        this.orientation = normalized;
+        this.openSidesMask = computeOpenSidesMask();
+    }
+
+    public void setOrientation(int orientation) {
+        int normalized = normalizeOrientation(getType(), orientation);
+        if (board != null) {
+            board.setTileShape(slot, getType(), normalized);
+            return;
         }
-        return open;
+        this.orientation = normalized;
+        this.openSidesMask = computeOpenSidesMask();
+    }
+
+    public void setMarker(Marker marker) {
+        if (board != null) {
+            board.setMarker(slot, marker);
+            return;
+        }
+        this.marker = marker;
+    }
+
+    // Набор открытых сторон для DTO; в игровой логике используйте openSidesMask / connectsTo
+    public Set<Direction> getOpenSides() {
+        return Direction.fromMask(getOpenSidesMask());
     }
 
     // Вспомогательный метод для проверки, соединяется ли этот тайл с соседним в заданном направлении
     public boolean connectsTo(Direction direction) {
-        return getOpenSides().contains(direction);
+        return (getOpenSidesMask() & direction.getMask()) != 0;
+    }
+
+    private int computeOpenSidesMask() {
+        return type == null ? 0 : type.getOpenSidesMask(orientation);
+    }
+
+    private static int normalizeOrientation(TileType type, int orientation) {
+        return (type == TileType.STRAIGHT) ? orientation % 2 : orientation % 4; // Для прямого только 2 ориентации
     }
 }
@@ -0,0 +1,53 @@
+package max.iv.labyrinth_game.model.game;
+
+/**
+ * Ключи Zobrist-хэша состояния партии. Вместо таблиц случайных чисел ключ получается перемешиванием
+ * (финализатор SplitMix64) номера признака, слота и значения: он не зависит от размера доски,
+ * одинаков на любом сервере и при каждом запуске, а разные входы дают разные ключи.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x4C414259_52494E54L;
+
+    private static final int TILE = 1;
+    private static final int FIXED_SIDES = 2;
+    private static final int MARKER = 3;
+    private static final int PLAYER = 4;
+    private static final int CURRENT_PLAYER = 5;
+    private static final int PHASE = 6;
+
+    private Zobrist() {
+    }
+
+    static long tileKey(int slot, int type, int orientation) {
+        return key(TILE, slot, type << 8 | orientation);
+    }
+
+    static long fixedSidesKey(int slot, int mask) {
+        return key(FIXED_SIDES, slot, mask);
+    }
+
+    static long markerKey(int slot, int markerId) {
+        return key(MARKER, slot, markerId);
+    }
+
+    // Игрок с местом seat (индекс в списке игроков комнаты) стоит на (x, y)
+    public static long playerKey(int seat, int x, int y) {
+        return key(PLAYER, seat, (x & 0xFFF) << 12 | (y & 0xFFF));
+    }
+
+    public static long currentPlayerKey(int seat) {
+        return key(CURRENT_PLAYER, 0, seat);
+    }
+
+    public static long phaseKey(int phaseOrdinal) {
+        return key(PHASE, 0, phaseOrdinal);
+    }
+
+    private static long key(int feature, int slot, int value) {
+        long z = SEED + ((long) feature << 56 | (long) (slot & 0xFFFFFF) << 32 | (value & 0xFFFFFFFFL));
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
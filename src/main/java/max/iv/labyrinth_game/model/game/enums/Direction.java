@@ -1,7 +1,14 @@
 package max.iv.labyrinth_game.model.game.enums;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Direction {
     NORTH, EAST, SOUTH, WEST;
+
+    private static final Direction[] VALUES = values();
+
     public Direction opposite() {
         return switch (this) {
             case NORTH -> SOUTH;
@@ -33,4 +40,30 @@ public enum Direction {
     public boolean isVertical() {
         return this == NORTH || this == SOUTH;
     }
+
+    // Бит направления в 4-битной маске открытых сторон
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    public static int toMask(Collection<Direction> directions) {
+        int mask = 0;
+        if (directions != null) {
+            for (Direction direction : directions) {
+                mask |= direction.getMask();
+            }
+        }
+        return mask;
+    }
+
+    // Представление маски в виде Set — только для маппинга в DTO, не для горячих путей
+    public static Set<Direction> fromMask(int mask) {
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
+        for (Direction direction : VALUES) {
+            if ((mask & direction.getMask()) != 0) {
+                directions.add(direction);
+            }
+        }
+        return directions;
+    }
 }
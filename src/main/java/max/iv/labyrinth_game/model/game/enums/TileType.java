@@ -3,5 +3,18 @@ package max.iv.labyrinth_game.model.game.enums;
 public enum TileType {
     STRAIGHT, // Прямой
     CORNER,   // Угловой
-    T_SHAPED  // Т-образный
+    T_SHAPED; // Т-образный
+
+    private static final int N = 1, E = 1 << 1, S = 1 << 2, W = 1 << 3; // совпадает с Direction.getMask()
+
+    // Маски открытых сторон, индекс — [тип][ориентация]
+    private static final int[][] OPEN_SIDES_MASKS = {
+            {N | S, E | W, N | S, E | W},                 // STRAIGHT: 0 — вертикальный, 1 — горизонтальный
+            {N | E, E | S, S | W, W | N},                 // CORNER: 0: N-E, 1: E-S, 2: S-W, 3: W-N
+            {N | E | W, N | E | S, E | S | W, N | S | W}  // T_SHAPED: 0: нет S, 1: нет W, 2: нет N, 3: нет E
+    };
+
+    public int getOpenSidesMask(int orientation) {
+        return OPEN_SIDES_MASKS[ordinal()][orientation & 3];
+    }
 }
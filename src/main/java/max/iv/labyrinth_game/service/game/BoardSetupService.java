@@ -1,17 +1,13 @@
 package max.iv.labyrinth_game.service.game;
 
-import max.iv.labyrinth_game.config.game.BaseConfig;
-import max.iv.labyrinth_game.config.game.BoardConfig;
 import max.iv.labyrinth_game.config.game.BoardConfigLoader;
-import max.iv.labyrinth_game.config.game.StationaryTileConfig;
+import max.iv.labyrinth_game.config.game.BoardTemplate;
+import max.iv.labyrinth_game.config.game.FairnessModel;
 import max.iv.labyrinth_game.model.game.Base;
 import max.iv.labyrinth_game.model.game.Board;
-import max.iv.labyrinth_game.model.game.Cell;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Marker;
 import max.iv.labyrinth_game.model.game.Player;
-import max.iv.labyrinth_game.model.game.Tile;
-import max.iv.labyrinth_game.model.game.enums.Direction;
 import max.iv.labyrinth_game.model.game.enums.TileType;
 import org.springframework.stereotype.Service;
 
@@ -19,136 +15,96 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class BoardSetupService {
 
     private final BoardConfigLoader boardConfigLoader;
-    private final Random random = new Random();
 
-    private static final int TOTAL_UNIQUE_MARKER_TYPES = 12;
+    private static final int MAX_MARKER_PLACEMENTS = 20;
 
     public BoardSetupService(BoardConfigLoader boardConfigLoader) {
         this.boardConfigLoader = boardConfigLoader;
     }
 
     public Board setupBoard(GameRoom room) {
-        List<Player> players = room.getPlayers();
-
-        BoardConfig config = boardConfigLoader.getBoardConfig();
-        Board board = new Board(config.boardSize());
-
-        setupBases(board, players, config);
-        setupStationaryTiles(board, players, config);
-
-        List<Tile> movableTiles = generateMovableTiles(config.boardSize());
-        Collections.shuffle(movableTiles);
+        return setupBoard(room, ThreadLocalRandom.current());
+    }
 
-        if (movableTiles.isEmpty()) {
-            throw new IllegalStateException("Movable tiles pool is empty, cannot setup board.");
+    // С генератором партии: при одинаковом сиде, шаблоне и составе игроков раскладка совпадает
+    public Board setupBoard(GameRoom room, Random random) {
+        List<Player> players = room.getPlayers();
+        BoardTemplate template = room.getBoardSize() > 0
+                ? boardConfigLoader.getBoardTemplate(room.getBoardSize())
+                : boardConfigLoader.getBoardTemplate();
+
+        // Стационарные тайлы и выходы баз уже в прототипе — копируем массивы целиком
+        Board board = template.newBoard(players.size());
+        setupBases(players, template);
+
+        TileType[] movableTiles = template.movableTiles();
+        shuffle(movableTiles, random);
+        int last = movableTiles.length - 1;
+        board.setTileShape(board.getExtraSlot(), movableTiles[last], randomOrientation(movableTiles[last], random));
+        int cellCount = Math.min(last, template.movableCellCount());
+        for (int i = 0; i < cellCount; i++) {
+            board.setTileShape(template.movableCell(i), movableTiles[i], randomOrientation(movableTiles[i], random));
         }
 
-        board.setExtraTile(movableTiles.remove(movableTiles.size() - 1));
-        populateBoardWithTiles(board, movableTiles);
-
-        List<Marker> markers = placeMarkers(board, players, config);
+        List<Marker> markers = new ArrayList<>(template.getMarkerCount());
+        for (int i = 0; i < template.getMarkerCount(); i++) {
+            markers.add(new Marker(i));
+        }
+        int[] eligibleCells = template.markerCells(players.size());
+        FairnessModel.Entry fairness = boardConfigLoader.getFairnessEntry(template.getBoardSize(), players.size());
+        // Перекошенную по модели честности раскладку маркеров перебрасываем, но не бесконечно
+        for (int attempt = 1; ; attempt++) {
+            int placed = placeMarkers(board, markers, eligibleCells, random);
+            assignMarkersToPlayers(new ArrayList<>(markers), players, random);
+            if (fairness == null || attempt == MAX_MARKER_PLACEMENTS
+                    || FairnessModel.markerDistanceSpread(board, players) <= fairness.maxMarkerDistanceSpread()) {
+                break;
+            }
+            for (int i = 0; i < placed; i++) {
+                board.setMarker(eligibleCells[i], null);
+            }
+        }
         board.setAllMarkersInGame(markers);
-        assignMarkersToPlayers(markers, players);
 
         return board;
     }
-    private void setupBases(Board board, List<Player> players, BoardConfig config) {
-        for (int i = 0; i < players.size(); i++) {
-            Player player = players.get(i);
-            if (i >= config.bases().size())
-                continue;
 
-            BaseConfig baseConfig = config.bases().get(i);
-            if (board.isValidCoordinate(baseConfig.x(), baseConfig.y()))
-                continue;
-
-            Base newBase = new Base(baseConfig.x(), baseConfig.y(), parseDirections(baseConfig.exits()));
-            player.updateBase(newBase);
+    private void setupBases(List<Player> players, BoardTemplate template) {
+        List<Base> bases = template.getBases();
+        for (int i = 0; i < players.size() && i < bases.size(); i++) {
+            Player player = players.get(i);
+            player.updateBase(bases.get(i));
             player.resetToMyBase();
-
-            Cell baseCell = board.getCell(baseConfig.x(), baseConfig.y());
-            baseCell.setFixedOpenSides(parseDirections(baseConfig.exits()));
         }
     }
 
-    private void setupStationaryTiles(Board board, List<Player> players, BoardConfig config) {
-        if (config.stationaryTiles() == null) return;
-
-        for (StationaryTileConfig tileConfig : config.stationaryTiles()) {
-            if (board.isValidCoordinate(tileConfig.x(), tileConfig.y())) continue;
-
-            Cell cell = board.getCell(tileConfig.x(), tileConfig.y());
-            if (cell != null && cell.isStationary()) {
-                try {
-                    TileType type = TileType.valueOf(tileConfig.type().toUpperCase());
-                    cell.setTile(new Tile(type, tileConfig.orientation()));
-                } catch (IllegalArgumentException ignored) {
-                }
-            }
-        }
-    }
-
-    private List<Tile> generateMovableTiles(int boardSize) {
-        List<Tile> tiles = new ArrayList<>();
-        addTiles(tiles, TileType.STRAIGHT, 13, 2);
-        addTiles(tiles, TileType.CORNER, 15, 4);
-        addTiles(tiles, TileType.T_SHAPED, 6, 4);
-        return tiles;
+    private static int randomOrientation(TileType type, Random random) {
+        return random.nextInt(type == TileType.STRAIGHT ? 2 : 4);
     }
 
-    private void addTiles(List<Tile> tiles, TileType type, int count, int orientations) {
+    // Маркер i ложится в eligibleCells[i]; возвращает, сколько маркеров размещено
+    private int placeMarkers(Board board, List<Marker> markers, int[] eligibleCells, Random random) {
+        int count = Math.min(markers.size(), eligibleCells.length);
+        // Частичная тасовка: случайными нужны только первые count клеток
         for (int i = 0; i < count; i++) {
-            tiles.add(new Tile(type, random.nextInt(orientations)));
+            int j = i + random.nextInt(eligibleCells.length - i);
+            int cell = eligibleCells[j];
+            eligibleCells[j] = eligibleCells[i];
+            eligibleCells[i] = cell;
+            board.setMarker(cell, markers.get(i));
         }
+        return count;
     }
 
-    private void populateBoardWithTiles(Board board, List<Tile> tiles) {
-        int index = 0;
-        for (int y = 0; y < board.getSize(); y++) {
-            for (int x = 0; x < board.getSize(); x++) {
-                Cell cell = board.getCell(x, y);
-                if (!cell.isStationary() && index < tiles.size()) {
-                    cell.setTile(tiles.get(index++));
-                }
-            }
-        }
-    }
-
-    private List<Marker> placeMarkers(Board board, List<Player> players, BoardConfig config) {
-        List<Marker> markers = IntStream.range(0, TOTAL_UNIQUE_MARKER_TYPES)
-                .mapToObj(Marker::new)
-                .collect(Collectors.toList());
-
-        List<Cell> eligibleCells = board.getAllCells().stream()
-                .filter(cell -> players.stream().noneMatch(p -> p.isBase(cell.getX(), cell.getY())))
-                .collect(Collectors.toList());
-
-        Collections.shuffle(eligibleCells);
-
-        for (int i = 0; i < Math.min(markers.size(), eligibleCells.size()); i++) {
-            Cell cell = eligibleCells.get(i);
-            Marker marker = markers.get(i);
-            if (cell.getTile() != null) {
-                cell.getTile().setMarker(marker);
-            } else {
-                cell.setStationaryMarker(marker);
-            }
-        }
-
-        return markers;
-    }
-
-    private void assignMarkersToPlayers(List<Marker> markers, List<Player> players) {
-        Collections.shuffle(markers);
-        int markersPerPlayer = TOTAL_UNIQUE_MARKER_TYPES / players.size();
+    private void assignMarkersToPlayers(List<Marker> markers, List<Player> players, Random random) {
+        Collections.shuffle(markers, random);
+        int markersPerPlayer = markers.size() / players.size();
 
         int index = 0;
         for (Player player : players) {
@@ -161,19 +117,12 @@ public class BoardSetupService {
         }
     }
 
-    private Set<Direction> parseDirections(List<String> directions) {
-        return directions == null ? Collections.emptySet() :
-                directions.stream()
-                        .map(String::toUpperCase)
-                        .filter(d -> {
-                            try {
-                                Direction.valueOf(d);
-                                return true;
-                            } catch (IllegalArgumentException e) {
-                                return false;
-                            }
-                        })
-                        .map(Direction::valueOf)
-                        .collect(Collectors.toSet());
+    private static void shuffle(TileType[] tiles, Random random) {
+        for (int i = tiles.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            TileType tile = tiles[i];
+            tiles[i] = tiles[j];
+            tiles[j] = tile;
+        }
     }
 }
@@ -3,7 +3,6 @@ package max.iv.labyrinth_game.service.game;
 import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.model.game.Board;
 import max.iv.labyrinth_game.model.game.Player;
-import max.iv.labyrinth_game.model.game.Tile;
 import max.iv.labyrinth_game.model.game.enums.Direction;
 import org.springframework.stereotype.Service;
 
@@ -12,124 +11,114 @@ import java.util.List;
 @Service
 public class BoardShiftService {
 
+    /**
+     * Всё, что нужно для отката сдвига: сама операция и прежние клетки сдвинутых игроков.
+     * Тайлы хранить не нужно — обратный сдвиг возвращает выпавший тайл и прежний запасной на места.
+     */
+    public record ShiftUndo(int shiftIndex, Direction direction, Player[] displacedPlayers, int[] previousCells) {
+    }
+
     public void shiftBoard(Board board, int shiftIndex, Direction direction, List<Player> playersInGame) {
-        if (shiftIndex % 2 == 0 || shiftIndex < 0 || shiftIndex >= board.getSize()) {
-            log.warn("Attempted to shift invalid row/column index: {}. Index must be odd and within board bounds.", shiftIndex);
-            throw new IllegalArgumentException("Cannot shift stationary row or column (index must be odd).");
-        }
+        shiftTiles(board, shiftIndex, direction);
         if (direction == Direction.NORTH || direction == Direction.SOUTH) {
-            shiftColumn(board, shiftIndex, direction,playersInGame);
-        } else if (direction == Direction.EAST || direction == Direction.WEST) {
-            shiftRow(board, shiftIndex, direction,playersInGame);
+            log.debug("Shifting column {} {}", shiftIndex, direction);
+            updatePlayerPositionsForColumnShift(shiftIndex, delta(direction), board.getSize(), playersInGame);
         } else {
-            log.error("Invalid shift direction provided: {}", direction);
-            throw new IllegalArgumentException("Invalid shift direction: " + direction);
+            log.debug("Shifting row {} {} with players.", shiftIndex, direction);
+            updatePlayerPositionsForRowShift(shiftIndex, delta(direction), board.getSize(), playersInGame);
         }
     }
 
-    private void shiftRow(Board board, int rowIndex, Direction direction,List<Player> playersInGame) {
-        log.debug("Shifting row {} {} with players.", rowIndex, direction);
-        Tile[] row = getLineTiles(board, true, rowIndex);
-        int boardSize = board.getSize();
-        Tile tempExtra = board.getExtraTile();
-        Tile outgoing;
-        if (direction == Direction.EAST) {
-           outgoing = row[board.getSize() - 1];
-            updatePlayerPositionsForRowShift(rowIndex, direction, boardSize, playersInGame, boardSize - 1, 0);
-            for (int x = board.getSize() - 1; x > 0; x--) {
-                board.getCell(x, rowIndex).setTile(row[x - 1]);
-            }
-            board.getCell(0, rowIndex).setTile(tempExtra);
-        } else if (direction == Direction.WEST) {
-            outgoing = row[0];
-            updatePlayerPositionsForRowShift(rowIndex, direction, boardSize, playersInGame, 0, boardSize - 1);
-            for (int x = 0; x < board.getSize() - 1; x++) {
-                board.getCell(x, rowIndex).setTile(row[x + 1]);
+    // Сдвиг «на пробу» прямо на живой доске: без логов, откатывается undoShift за O(длины линии)
+    public ShiftUndo applyShift(Board board, int shiftIndex, Direction direction, List<Player> playersInGame) {
+        shiftTiles(board, shiftIndex, direction);
+        int size = board.getSize();
+        boolean column = direction == Direction.NORTH || direction == Direction.SOUTH;
+        int displacedCount = 0;
+        for (Player player : playersInGame) {
+            if ((column ? player.getCurrentX() : player.getCurrentY()) == shiftIndex) {
+                displacedCount++;
             }
-            board.getCell(board.getSize() - 1, rowIndex).setTile(tempExtra);
-        } else {
-            throw new IllegalArgumentException("Invalid row shift direction: " + direction);
         }
+        Player[] displaced = new Player[displacedCount];
+        int[] previousCells = new int[displacedCount];
+        int i = 0;
+        for (Player player : playersInGame) {
+            if ((column ? player.getCurrentX() : player.getCurrentY()) != shiftIndex) continue;
+            int cell = player.getCurrentY() * size + player.getCurrentX();
+            int shifted = shiftedCellIndex(size, cell, shiftIndex, direction);
+            displaced[i] = player;
+            previousCells[i++] = cell;
+            player.moveTo(shifted % size, shifted / size);
+        }
+        return new ShiftUndo(shiftIndex, direction, displaced, previousCells);
+    }
 
-        board.setExtraTile(outgoing);
+    public void undoShift(Board board, ShiftUndo undo) {
+        shiftTiles(board, undo.shiftIndex(), undo.direction().opposite());
+        int size = board.getSize();
+        for (int i = 0; i < undo.displacedPlayers().length; i++) {
+            int cell = undo.previousCells()[i];
+            undo.displacedPlayers()[i].moveTo(cell % size, cell / size);
+        }
     }
 
-    private void shiftColumn(Board board, int columnIndex, Direction direction,List<Player> playersInGame) {
-        log.debug("Shifting column {} {}", columnIndex, direction);
+    // Сдвиг только тайлов, без игроков: для перебора ходов на копии доски. Обратный сдвиг — opposite()
+    public void shiftTiles(Board board, int shiftIndex, Direction direction) {
+        if (shiftIndex % 2 == 0 || shiftIndex < 0 || shiftIndex >= board.getSize()) {
+            log.warn("Attempted to shift invalid row/column index: {}. Index must be odd and within board bounds.", shiftIndex);
+            throw new IllegalArgumentException("Cannot shift stationary row or column (index must be odd).");
+        }
+        if (direction == null) {
+            log.error("Invalid shift direction provided: {}", direction);
+            throw new IllegalArgumentException("Invalid shift direction: " + direction);
+        }
         int boardSize = board.getSize();
-        Tile[] column = getLineTiles(board, false, columnIndex);
-        Tile tempExtra = board.getExtraTile();
-        Tile outgoing;
+        switch (direction) {
+            case EAST -> board.rotateLine(shiftIndex * boardSize, 1, boardSize);
+            case WEST -> board.rotateLine(shiftIndex * boardSize + boardSize - 1, -1, boardSize);
+            case SOUTH -> board.rotateLine(shiftIndex, boardSize, boardSize);
+            case NORTH -> board.rotateLine((boardSize - 1) * boardSize + shiftIndex, -boardSize, boardSize);
+        }
+    }
 
-        if (direction == Direction.SOUTH) {
-            outgoing = column[board.getSize() - 1];
-            updatePlayerPositionsForColumnShift(columnIndex, direction, boardSize, playersInGame, boardSize - 1, 0);
-            for (int y = board.getSize() - 1; y > 0; y--) {
-                board.getCell(columnIndex, y).setTile(column[y - 1]);
-            }
-            board.getCell(columnIndex, 0).setTile(tempExtra);
-        } else if (direction == Direction.NORTH) {
-            outgoing = column[0];
-            updatePlayerPositionsForColumnShift(columnIndex, direction, boardSize, playersInGame, 0, boardSize - 1);
-            for (int y = 0; y < board.getSize() - 1; y++) {
-                board.getCell(columnIndex, y).setTile(column[y + 1]);
-            }
-            board.getCell(columnIndex, board.getSize() - 1).setTile(tempExtra);
-        } else {
-            throw new IllegalArgumentException("Invalid column shift direction: " + direction);
+    // Индекс клетки (y * size + x), на которой окажется фишка после сдвига; выпавшая попадает на вставленный тайл
+    public static int shiftedCellIndex(int boardSize, int cellIndex, int shiftIndex, Direction direction) {
+        int x = cellIndex % boardSize;
+        int y = cellIndex / boardSize;
+        if (direction == Direction.NORTH || direction == Direction.SOUTH) {
+            return x == shiftIndex ? Math.floorMod(y + delta(direction), boardSize) * boardSize + x : cellIndex;
         }
+        return y == shiftIndex ? y * boardSize + Math.floorMod(x + delta(direction), boardSize) : cellIndex;
+    }
 
-        board.setExtraTile(outgoing);
+    private static int delta(Direction direction) {
+        return direction == Direction.EAST || direction == Direction.SOUTH ? 1 : -1;
     }
-    // --- Логика обновления позиций игроков (новые приватные методы) ---
 
-    private void updatePlayerPositionsForRowShift(int rowIndex, Direction direction, int boardSize, List<Player> playersInGame, int shiftedOutX, int insertedAtX) {
+    // --- Позиции игроков: сдвиг на delta по модулю размера, выпавший игрок оказывается на вставленном тайле ---
+
+    private void updatePlayerPositionsForRowShift(int rowIndex, int delta, int boardSize, List<Player> playersInGame) {
         for (Player player : playersInGame) {
-            if (player.getCurrentY() == rowIndex) { // Игрок находится в сдвигаемом ряду
-                if (player.getCurrentX() == shiftedOutX) { // Игрок на "выпадающем" тайле
-                    player.moveTo(insertedAtX, rowIndex);
-                    log.info("Player {} (ID: {}) wrapped in row {} from x={} to x={}",
-                            player.getName(), player.getId(), rowIndex, shiftedOutX, insertedAtX);
-                } else { // Игрок сдвигается вместе с рядом
-                    if (direction == Direction.EAST) { // Сдвиг вправо
-                        player.moveTo(player.getCurrentX() + 1, rowIndex);
-                    } else { // Сдвиг влево (direction == Direction.WEST)
-                        player.moveTo(player.getCurrentX() - 1, rowIndex);
-                    }
-                    log.trace("Player {} (ID: {}) moved with row {} to ({},{})",
-                            player.getName(), player.getId(), rowIndex, player.getCurrentX(), player.getCurrentY());
-                }
+            if (player.getCurrentY() != rowIndex) continue;
+            int newX = Math.floorMod(player.getCurrentX() + delta, boardSize);
+            if (newX != player.getCurrentX() + delta) {
+                log.info("Player {} (ID: {}) wrapped in row {} from x={} to x={}",
+                        player.getName(), player.getId(), rowIndex, player.getCurrentX(), newX);
             }
+            player.moveTo(newX, rowIndex);
         }
     }
 
-    private void updatePlayerPositionsForColumnShift(int columnIndex, Direction direction, int boardSize, List<Player> playersInGame, int shiftedOutY, int insertedAtY) {
+    private void updatePlayerPositionsForColumnShift(int columnIndex, int delta, int boardSize, List<Player> playersInGame) {
         for (Player player : playersInGame) {
-            if (player.getCurrentX() == columnIndex) { // Игрок находится в сдвигаемой колонке
-                if (player.getCurrentY() == shiftedOutY) { // Игрок на "выпадающем" тайле
-                    player.moveTo(columnIndex, insertedAtY);
-                    log.info("Player {} (ID: {}) wrapped in column {} from y={} to y={}",
-                            player.getName(), player.getId(), columnIndex, shiftedOutY, insertedAtY);
-                } else { // Игрок сдвигается вместе с колонкой
-                    if (direction == Direction.SOUTH) { // Сдвиг вниз
-                        player.moveTo(columnIndex, player.getCurrentY() + 1);
-                    } else { // Сдвиг вверх (direction == Direction.NORTH)
-                        player.moveTo(columnIndex, player.getCurrentY() - 1);
-                    }
-                    log.trace("Player {} (ID: {}) moved with column {} to ({},{})",
-                            player.getName(), player.getId(), columnIndex, player.getCurrentX(), player.getCurrentY());
-                }
+            if (player.getCurrentX() != columnIndex) continue;
+            int newY = Math.floorMod(player.getCurrentY() + delta, boardSize);
+            if (newY != player.getCurrentY() + delta) {
+                log.info("Player {} (ID: {}) wrapped in column {} from y={} to y={}",
+                        player.getName(), player.getId(), columnIndex, player.getCurrentY(), newY);
             }
+            player.moveTo(columnIndex, newY);
         }
     }
-    private Tile[] getLineTiles(Board board, boolean isRow, int index) {
-        int size = board.getSize();
-        Tile[] tiles = new Tile[size];
-        for (int i = 0; i < size; i++) {
-            tiles[i] = isRow ? board.getCell(i, index).getTile() : board.getCell(index, i).getTile();
-        }
-        return tiles;
-    }
-
-
 }
@@ -4,11 +4,11 @@ import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.exceptions.ErrorType;
 import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.BoardVersion;
 import max.iv.labyrinth_game.model.game.Cell;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Marker;
 import max.iv.labyrinth_game.model.game.Player;
-import max.iv.labyrinth_game.model.game.enums.Direction;
 import max.iv.labyrinth_game.model.game.enums.GamePhase;
 import max.iv.labyrinth_game.model.game.enums.PlayerAvatar;
 import max.iv.labyrinth_game.model.game.enums.PlayerStatus;
@@ -18,14 +18,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,19 +35,20 @@ public class GameService {
     private final BoardSetupService boardSetupService;
     private final GameValidator gameValidator;
     private final BoardShiftService boardShiftService;
-    
-    
-    private final Random random = new Random();
+    private final PathFinder pathFinder;
+    private final ReplayService replayService;
 
     private final List<PlayerAvatar> avatars = PlayerAvatar.getAllAvatars();
 
     @Autowired
     public GameService(RoomService roomService, BoardSetupService boardSetupService, GameValidator gameValidator,
-                       BoardShiftService boardShiftService) {
+                       BoardShiftService boardShiftService, PathFinder pathFinder, ReplayService replayService) {
         this.roomService = roomService;
         this.boardSetupService = boardSetupService;
         this.gameValidator = gameValidator;
         this.boardShiftService = boardShiftService;
+        this.pathFinder = pathFinder;
+        this.replayService = replayService;
 
     }
 
@@ -69,10 +69,17 @@ public class GameService {
         GameRoom room = roomService.getRoom(roomId);
         gameValidator.validateRoomBeforeGameStart(room);
 
-        Board board = boardSetupService.setupBoard(room);
+        // Один генератор на партию: по сиду раскладка и первый игрок воспроизводятся точно
+        if (room.getSeed() == 0) {
+            room.setSeed(ThreadLocalRandom.current().nextLong());
+        }
+        Random random = new Random(room.getSeed());
+        Board board = boardSetupService.setupBoard(room, random);
         room.setBoard(board);
+        room.publishBoardVersion(BoardVersion.of(board));
         room.setCurrentPlayerIndex(random.nextInt(room.getPlayers().size()));
         room.setGamePhase(GamePhase.PLAYER_SHIFT);
+        replayService.startRecording(room);
         log.info("Game started in room: {}. First player: {} to make a SHIFT.",
                 roomId, room.getCurrentPlayer().getName());
         return room;
@@ -95,9 +102,18 @@ public class GameService {
             // Если boardShiftService обнаружил невалидные данные, "заворачиваем" ошибку
             throw new GameLogicException(e.getMessage(), ErrorType.INVALID_SHIFT);
         }
+        // Новая версия доски делит с предыдущей всё, кроме сдвинутой линии и запасного тайла
+        BoardVersion published = gameRoom.getBoardVersion();
+        gameRoom.publishBoardVersion(published != null
+                ? published.afterShift(gameRoom.getBoard(), context.getShiftIndex(), context.getShiftDirection())
+                : BoardVersion.of(gameRoom.getBoard()));
+        replayService.recordShift(gameRoom, gameRoom.getCurrentPlayerIndex(), context.getShiftIndex(), context.getShiftDirection());
 
         // 4. После успешного сдвига меняем фазу игры на перемещение
         gameRoom.setGamePhase(GamePhase.PLAYER_MOVE);
+        // Область достижимости считаем один раз за ход: ход игрока дальше проверяется по ней
+        gameRoom.setReachableCells(pathFinder.reachableFrom(gameRoom.getBoard(),
+                currentPlayer.getCurrentX(), currentPlayer.getCurrentY()));
         log.info("Room {} phase changed to PLAYER_MOVE for player {}",
                 gameRoom.getRoomId(), currentPlayer.getName());
     }
@@ -105,7 +121,6 @@ public class GameService {
     public void performMoveAction(MoveActionContext context) {
         GameRoom room = context.getRoom();
         Player currentPlayer = room.getCurrentPlayer();
-        Board board = room.getBoard();
         int targetX = context.getTargetX();
         int targetY = context.getTargetY();
 
@@ -115,7 +130,7 @@ public class GameService {
                 targetX, targetY);
         if (currentPlayer.getCurrentX() != targetX || currentPlayer.getCurrentY() != targetY) {
             // Проверяем, можно ли дойти до этой клетки
-            if (!canMoveTo(board, currentPlayer, targetX, targetY)) {
+            if (!canMoveTo(room, currentPlayer, targetX, targetY)) {
                 log.warn("Player {} cannot move from ({},{}) to ({},{}). Path not found.",
                         currentPlayer.getName(),  currentPlayer.getCurrentX(), currentPlayer.getCurrentY(),
                         targetX, targetY);
@@ -125,23 +140,23 @@ public class GameService {
             // Перемещаем игрока
             currentPlayer.moveTo(targetX, targetY);
             // Проверяем и собираем маркер
-            collectMarkerIfPresent(board, currentPlayer);
+            collectMarkerIfPresent(room, currentPlayer);
         } else {
             log.info("Player {} chose not to move (stayed at ({},{})) in room {}",
                     currentPlayer.getName(),  currentPlayer.getCurrentX(), currentPlayer.getCurrentY(), room.getRoomId());
         }
 
+        int seat = room.getCurrentPlayerIndex();
         // 4. Проверяем, не победил ли игрок
         if (checkWinCondition(currentPlayer)) {
             room.setWinner(currentPlayer);
             room.setGamePhase(GamePhase.GAME_OVER);
             log.info("Player {} WON the game in room {}!", currentPlayer.getName(), room.getRoomId());
-            // Возвращаемся, так как ход передавать не нужно
-            return;
+        } else {
+            // 5. Если никто не победил, завершаем ход и передаем его следующему
+            endTurn(room);
         }
-
-        // 5. Если никто не победил, завершаем ход и передаем его следующему
-        endTurn(room);
+        replayService.recordMove(room, seat, targetX, targetY);
     }
 
 
@@ -156,59 +171,37 @@ public class GameService {
         return false;
     }
 
-    private void collectMarkerIfPresent(Board board, Player player) {
+    private void collectMarkerIfPresent(GameRoom room, Player player) {
+        Board board = room.getBoard();
         Cell cell = board.getCell(player.getCurrentX(), player.getCurrentY());
         if (cell == null) return;
         Marker markerOnCell = cell.getActiveMarker();
         if (markerOnCell != null && player.getTargetMarkerIds().contains(markerOnCell.getId())) {
             player.collectMarker(markerOnCell);
             cell.removeActiveMarker();
+            BoardVersion published = room.getBoardVersion();
+            int slot = player.getCurrentY() * board.getSize() + player.getCurrentX();
+            room.publishBoardVersion(published != null ? published.withChanges(board, slot) : BoardVersion.of(board));
             log.info("Player {} (ID: {}) collected marker {} at ({},{})",
                     player.getName(), player.getId(), markerOnCell.getId(), player.getCurrentX(), player.getCurrentY());
         }
     }
 
-    private boolean canMoveTo(Board board, Player player, int targetX, int targetY) {
+    private boolean canMoveTo(GameRoom room, Player player, int targetX, int targetY) {
+        Board board = room.getBoard();
         if (board == null || player == null) return false;
         if (!board.isValidCoordinate(player.getCurrentX(), player.getCurrentY()) ||
                 !board.isValidCoordinate(targetX, targetY)) {
             return false;
         }
         if (player.getCurrentX() == targetX && player.getCurrentY() == targetY) return true;
-        return findPathBfs(board, player.getCurrentX(), player.getCurrentY(), targetX, targetY);
-    }
-
-    private boolean findPathBfs(Board board, int startX, int startY, int targetX, int targetY) {
-        Queue<Point> queue = new LinkedList<>();
-        Set<Point> visited = new HashSet<>();
-        Point startPoint = new Point(startX, startY);
-        queue.offer(startPoint);
-        visited.add(startPoint);
-
-        while (!queue.isEmpty()) {
-            Point currentPoint = queue.poll();
-            Cell currentCell = board.getCell(currentPoint.x, currentPoint.y);
-            if (currentCell == null) continue;
-            if (currentPoint.x == targetX && currentPoint.y == targetY) return true;
-
-            for (Direction direction : Direction.values()) {
-                if (currentCell.connectsTo(direction)) {
-                    int nextX = currentPoint.x + direction.getDx();
-                    int nextY = currentPoint.y + direction.getDy();
-                    if (board.isValidCoordinate(nextX, nextY)) {
-                        Cell neighborCell = board.getCell(nextX, nextY);
-                        if (neighborCell != null && neighborCell.connectsTo(direction.opposite())) {
-                            Point neighborPoint = new Point(nextX, nextY);
-                            if (!visited.contains(neighborPoint)) {
-                                visited.add(neighborPoint);
-                                queue.offer(neighborPoint);
-                            }
-                        }
-                    }
-                }
-            }
+        BitSet reachable = room.getReachableCells();
+        if (reachable == null) {
+            // Кэш сброшен вне сдвига (например, ушёл игрок) — пересчитываем один раз
+            reachable = pathFinder.reachableFrom(board, player.getCurrentX(), player.getCurrentY());
+            room.setReachableCells(reachable);
         }
-        return false;
+        return reachable.get(targetY * board.getSize() + targetX);
     }
 
     private void endTurn(GameRoom room) {
@@ -323,13 +316,14 @@ public class GameService {
         boolean removed = room.getPlayers().removeIf(p -> p.getId().equals(playerId));
 
         if (removed) {
+            room.invalidateReachableCells();
             log.info("Player {} has been physically removed from room {}.", playerId, roomId);
 
             // После физического удаления проверяем, не закончилась ли игра
             checkAndHandleGameEndConditions(room);
 
-            if (room.getPlayers().isEmpty()) {
-                log.info("Room {} is now empty and will be removed.", roomId);
+            if (!room.hasHumanPlayers()) {
+                log.info("Room {} has no human players left and will be removed.", roomId);
                 roomService.removeRoom(roomId);
                 return true; // Комната была удалена
             }
@@ -363,18 +357,21 @@ public class GameService {
         if (room.getGamePhase() == GamePhase.WAITING_FOR_PLAYERS) {
             return;
         }
+        // Боты не отключаются, поэтому смотрим только на людей
         boolean allPlayersDisconnected = room.getPlayers().stream()
+                .filter(p -> !p.isBot())
                 .allMatch(p -> p.getStatus() == PlayerStatus.DISCONNECTED);
         if(allPlayersDisconnected) {
             log.info("All players in room {} are disconnected. Marking game as over.", room.getRoomId());
             room.setGamePhase(GamePhase.GAME_OVER);
+            replayService.recordGameOver(room);
         }
     }
 
     private void handleTurnAfterDisconnect(GameRoom room, Player disconnectedPlayer) {
 
         if (room.getCurrentPlayer() != null && room.getCurrentPlayer().equals(disconnectedPlayer)) {
-            log.info("Current player {} has disconnected. The turn will remain with them until they reconnect and make a move.",
+            log.info("Current player {} has disconnected. If they do not return in time, a bot will play the turn for them.",
                     disconnectedPlayer.getName());
         } else {
             log.info("Player {} (not a current player) has disconnected.", disconnectedPlayer.getName());
@@ -395,7 +392,9 @@ public class GameService {
         }
         Player removedPlayer = playerToRemoveOpt.get();
         boolean wasCurrentPlayer = removedPlayer.equals(room.getCurrentPlayer());
+        replayService.recordRemoval(room, room.getPlayers().indexOf(removedPlayer));
         room.getPlayers().remove(removedPlayer);
+        room.invalidateReachableCells(); // индексы игроков сдвинулись
         log.info("Player {} (name: {}) has been permanently removed from room {}.",
                 playerId, removedPlayer.getName(), roomId);
         if (room.getPlayers().size() < 2 && room.getGamePhase().isActivePlayPhase()) {
@@ -419,16 +418,14 @@ public class GameService {
             room.setGamePhase(GamePhase.PLAYER_SHIFT);
             log.info("Current player left. Turn passed to {}.", room.getCurrentPlayer().getName());
         }
-        // ПРАВИЛО 4: Если комната стала пустой, она удаляется
-        if (room.getPlayers().isEmpty()) {
-            log.info("Room {} is now empty and will be removed.", roomId);
+        // ПРАВИЛО 4: Если в комнате не осталось людей, она удаляется (боты одни не играют)
+        if (!room.hasHumanPlayers()) {
+            log.info("Room {} has no human players left and will be removed.", roomId);
             roomService.removeRoom(roomId); // RoomService удаляет комнату из своей мапы
             return true; // Сообщаем, что комната была удалена
         }
 
         return false;
     }
-    private record Point(int x, int y) {
-    }
 }
 
@@ -0,0 +1,257 @@
+package max.iv.labyrinth_game.service.game;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.BoardVersion;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.MoveHint;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Подсказка текущему игроку: лучший сдвиг и ход к несобранным маркерам, а когда всё собрано — к базе.
+ * Для каждого варианта сдвига на черновой доске строятся два многоисточниковых поля расстояний от целей:
+ * сколько стен отделяет клетку от цели (0-1 BFS: по открытому проходу шаг бесплатный, через стену — 1)
+ * и манхэттенское. Сдвиг выбирается по стенам от фишки, клетка хода — по манхэттенскому полю внутри
+ * достижимой области. Снимок позиции берётся в ящике комнаты, расчёт идёт в своём пуле со сроком,
+ * а результат запоминается в комнате по Zobrist-хэшу состояния: повторные запросы в том же ходу ничего не стоят.
+ */
+@Slf4j
+@Service
+public class HintService {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+
+    private final GameValidator gameValidator;
+    private final BoardShiftService boardShiftService;
+    private final RoomCommandExecutor roomCommandExecutor;
+    private final ExecutorService hintPool;
+    private final long deadlineNanos;
+
+    // Всё, что нужно для расчёта, снятое под блокировкой комнаты; доска материализуется уже в пуле
+    record Position(BoardVersion board, boolean shiftDone, int pawnCell, Set<Integer> goalMarkerIds, int baseCell) {
+    }
+
+    @Autowired
+    public HintService(GameValidator gameValidator, BoardShiftService boardShiftService,
+                       RoomCommandExecutor roomCommandExecutor,
+                       @Value("${game.hints.threads:2}") int threads,
+                       @Value("${game.hints.deadline-ms:150}") long deadlineMs) {
+        this.gameValidator = gameValidator;
+        this.boardShiftService = boardShiftService;
+        this.roomCommandExecutor = roomCommandExecutor;
+        this.hintPool = Executors.newFixedThreadPool(threads);
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hintPool.shutdownNow();
+    }
+
+    // Ошибки проверки (не та фаза, не свой ход) приходят через future
+    public CompletableFuture<MoveHint> requestHint(GameRoom room, UUID playerId) {
+        return roomCommandExecutor.submit(room.getRoomId(), () -> cachedOrStartHint(room, playerId))
+                .thenCompose(Function.identity());
+    }
+
+    // Выполняется в ящике комнаты
+    private CompletableFuture<MoveHint> cachedOrStartHint(GameRoom room, UUID playerId) {
+        if (room.getBoard() == null || !room.getGamePhase().isActivePlayPhase()) {
+            throw new GameLogicException("Hints are only available during a game", ErrorType.INVALID_PHASE_FOR_ACTION);
+        }
+        gameValidator.validatePlayerTurn(room, playerId);
+        long stateHash = room.getStateHash();
+        if (room.getHint() != null && room.getHintStateHash() == stateHash) {
+            return room.getHint();
+        }
+        Position position = snapshot(room);
+        long deadline = System.nanoTime() + deadlineNanos;
+        CompletableFuture<MoveHint> hint = CompletableFuture.supplyAsync(() -> computeHint(position, deadline), hintPool);
+        room.setHint(hint);
+        room.setHintStateHash(stateHash);
+        return hint;
+    }
+
+    private Position snapshot(GameRoom room) {
+        Board board = room.getBoard();
+        Player player = room.getCurrentPlayer();
+        int size = board.getSize();
+        Set<Integer> goals = new HashSet<>(player.getTargetMarkerIds());
+        goals.removeAll(player.getCollectedMarkerIds());
+        BoardVersion version = room.getBoardVersion() != null ? room.getBoardVersion() : BoardVersion.of(board);
+        return new Position(version, room.getGamePhase() == GamePhase.PLAYER_MOVE,
+                player.getCurrentY() * size + player.getCurrentX(), goals,
+                player.getBase().y() * size + player.getBase().x());
+    }
+
+    MoveHint computeHint(Position position, long deadline) {
+        Board board = position.board().toBoard();
+        int size = board.getSize();
+        if (position.shiftDone()) {
+            int[] manhattan = manhattanField(size, goalCells(board, position));
+            int target = bestTarget(board, position.pawnCell(), manhattan);
+            return new MoveHint(null, null, target % size, target / size, manhattan[target] == 0, true);
+        }
+
+        int optionCount = TurnEnumerator.shiftOptionCount(size);
+        long bestScore = Long.MAX_VALUE;
+        int bestOption = 0;
+        int bestTarget = -1;
+        boolean bestReachesGoal = false;
+        boolean complete = true;
+        for (int option = 0; option < optionCount; option++) {
+            if (option > 0 && System.nanoTime() >= deadline) {
+                complete = false;
+                break;
+            }
+            int shiftIndex = 1 + 2 * (option / DIRECTIONS.length);
+            Direction direction = DIRECTIONS[option % DIRECTIONS.length];
+            boardShiftService.shiftTiles(board, shiftIndex, direction);
+            int pawn = BoardShiftService.shiftedCellIndex(size, position.pawnCell(), shiftIndex, direction);
+            int[] goals = goalCells(board, position);
+            int[] walls = wallField(board, goals);
+            int[] manhattan = manhattanField(size, goals);
+            int target = bestTarget(board, pawn, manhattan);
+            long score = (long) walls[pawn] * (2L * size * size) + manhattan[target];
+            if (score < bestScore) {
+                bestScore = score;
+                bestOption = option;
+                bestTarget = target;
+                bestReachesGoal = manhattan[target] == 0;
+            }
+            boardShiftService.shiftTiles(board, shiftIndex, direction.opposite());
+        }
+        int shiftIndex = 1 + 2 * (bestOption / DIRECTIONS.length);
+        return new MoveHint(shiftIndex, DIRECTIONS[bestOption % DIRECTIONS.length],
+                bestTarget % size, bestTarget / size, bestReachesGoal, complete);
+    }
+
+    // Клетки несобранных маркеров игрока (маркер на запасном тайле не в счёт), а когда всё собрано — база
+    private static int[] goalCells(Board board, Position position) {
+        if (position.goalMarkerIds().isEmpty()) {
+            return new int[]{position.baseCell()};
+        }
+        int cellCount = board.getSize() * board.getSize();
+        int[] goals = new int[position.goalMarkerIds().size()];
+        int count = 0;
+        for (int markerId : position.goalMarkerIds()) {
+            int slot = board.getMarkerSlot(markerId);
+            if (slot >= 0 && slot < cellCount) {
+                goals[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(goals, count);
+    }
+
+    // Клетка достижимой области с наименьшим манхэттенским расстоянием до цели; при равенстве — первая
+    private static int bestTarget(Board board, int pawn, int[] manhattan) {
+        BitSet reachable = board.getConnectivity().cellsConnectedTo(pawn);
+        int best = pawn;
+        for (int cell = reachable.nextSetBit(0); cell >= 0; cell = reachable.nextSetBit(cell + 1)) {
+            if (manhattan[cell] < manhattan[best]) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    // Сколько стен минимум отделяет клетку от ближайшей цели: 0-1 BFS по решётке слоями — сначала
+    // заливаем открытыми проходами всё с текущим числом стен, пробитые стены откладываем в следующий слой
+    static int[] wallField(Board board, int[] goals) {
+        int size = board.getSize();
+        int cellCount = size * size;
+        int[] distance = new int[cellCount];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] layer = new int[cellCount];
+        int[] nextLayer = new int[cellCount];
+        int layerSize = 0;
+        for (int goal : goals) {
+            if (distance[goal] != 0) {
+                distance[goal] = 0;
+                layer[layerSize++] = goal;
+            }
+        }
+        for (int walls = 0; layerSize > 0; walls++) {
+            int nextSize = 0;
+            for (int i = 0; i < layerSize; i++) {
+                int cell = layer[i];
+                if (distance[cell] != walls) continue; // клетку уже достали дешевле
+                int x = cell % size;
+                int y = cell / size;
+                int mask = board.getOpenSidesMask(cell);
+                for (Direction direction : DIRECTIONS) {
+                    int nx = x + direction.getDx();
+                    int ny = y + direction.getDy();
+                    if (nx < 0 || ny < 0 || nx >= size || ny >= size) continue;
+                    int neighbor = ny * size + nx;
+                    boolean open = (mask & direction.getMask()) != 0
+                            && (board.getOpenSidesMask(neighbor) & direction.opposite().getMask()) != 0;
+                    if (open && distance[neighbor] > walls) {
+                        distance[neighbor] = walls;
+                        layer[layerSize++] = neighbor;
+                    } else if (!open && distance[neighbor] > walls + 1) {
+                        distance[neighbor] = walls + 1;
+                        nextLayer[nextSize++] = neighbor;
+                    }
+                }
+            }
+            int[] swap = layer;
+            layer = nextLayer;
+            nextLayer = swap;
+            layerSize = nextSize;
+        }
+        return distance;
+    }
+
+    // Манхэттенское расстояние до ближайшей цели: обычный BFS от всех целей сразу
+    static int[] manhattanField(int size, int[] goals) {
+        int cellCount = size * size;
+        int[] distance = new int[cellCount];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+        for (int goal : goals) {
+            if (distance[goal] != 0) {
+                distance[goal] = 0;
+                queue[tail++] = goal;
+            }
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % size;
+            int y = cell / size;
+            for (Direction direction : DIRECTIONS) {
+                int nx = x + direction.getDx();
+                int ny = y + direction.getDy();
+                if (nx < 0 || ny < 0 || nx >= size || ny >= size) continue;
+                int neighbor = ny * size + nx;
+                if (distance[neighbor] == UNREACHABLE) {
+                    distance[neighbor] = distance[cell] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,168 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Поиск пути по проходам лабиринта. Клетки кодируются индексом y * size + x,
+ * очередь и visited живут в буферах, привязанных к потоку, поэтому запрос не создаёт объектов.
+ */
+@Component
+public class PathFinder {
+
+    private static final int UNREACHABLE = -1;
+
+    private static final int[] DX = new int[4];
+    private static final int[] DY = new int[4];
+    private static final int[] SIDE_MASK = new int[4];
+    private static final int[] OPPOSITE_SIDE_MASK = new int[4];
+
+    static {
+        for (Direction direction : Direction.values()) {
+            int d = direction.ordinal();
+            DX[d] = direction.getDx();
+            DY[d] = direction.getDy();
+            SIDE_MASK[d] = direction.getMask();
+            OPPOSITE_SIDE_MASK[d] = direction.opposite().getMask();
+        }
+    }
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    // Связность берётся из индекса компонент доски, BFS не запускается
+    public boolean isReachable(Board board, int fromX, int fromY, int toX, int toY) {
+        if (!isInside(board, fromX, fromY) || !isInside(board, toX, toY)) {
+            return false;
+        }
+        int size = board.getSize();
+        return board.getConnectivity().areConnected(fromY * size + fromX, toY * size + toX);
+    }
+
+    // Число шагов по кратчайшему пути или -1, если клетка недостижима
+    public int distanceTo(Board board, int fromX, int fromY, int toX, int toY) {
+        if (!isInside(board, fromX, fromY) || !isInside(board, toX, toY)) {
+            return UNREACHABLE;
+        }
+        int size = board.getSize();
+        int from = fromY * size + fromX;
+        int to = toY * size + toX;
+        if (!board.getConnectivity().areConnected(from, to)) {
+            return UNREACHABLE;
+        }
+        Scratch s = scratch.get();
+        return search(board, from, to, s);
+    }
+
+    // Все клетки, связанные проходами со стартовой (включая её саму)
+    public BitSet reachableFrom(Board board, int fromX, int fromY) {
+        if (!isInside(board, fromX, fromY)) {
+            return new BitSet();
+        }
+        return board.getConnectivity().cellsConnectedTo(fromY * board.getSize() + fromX);
+    }
+
+    /**
+     * Записывает в path индексы клеток кратчайшего пути (включая старт и цель)
+     * и возвращает их количество, либо -1, если пути нет. Буфер должен вмещать size * size клеток.
+     */
+    public int shortestPath(Board board, int fromX, int fromY, int toX, int toY, int[] path) {
+        int distance = distanceTo(board, fromX, fromY, toX, toY);
+        if (distance == UNREACHABLE) {
+            return UNREACHABLE;
+        }
+        int length = distance + 1;
+        if (path.length < length) {
+            throw new IllegalArgumentException("Path buffer is too small: " + path.length + " < " + length);
+        }
+        Scratch s = scratch.get();
+        int cell = toY * board.getSize() + toX;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = s.parent[cell];
+        }
+        return length;
+    }
+
+    private int search(Board board, int start, int target, Scratch s) {
+        int size = board.getSize();
+        s.reset(size * size);
+        s.visit(start);
+        s.parent[start] = UNREACHABLE;
+        s.depth[start] = 0;
+        s.offer(start);
+
+        while (s.head != s.tail) {
+            int current = s.poll();
+            if (current == target) {
+                return s.depth[current];
+            }
+            int cx = current % size;
+            int cy = current / size;
+            int openSides = board.getOpenSidesMask(current);
+            for (int d = 0; d < 4; d++) {
+                if ((openSides & SIDE_MASK[d]) == 0) continue;
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (nx < 0 || ny < 0 || nx >= size || ny >= size) continue;
+                int next = ny * size + nx;
+                if (s.isVisited(next)) continue;
+                if ((board.getOpenSidesMask(next) & OPPOSITE_SIDE_MASK[d]) == 0) continue;
+                s.visit(next);
+                s.parent[next] = current;
+                s.depth[next] = s.depth[current] + 1;
+                s.offer(next);
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    private static boolean isInside(Board board, int x, int y) {
+        return board != null && board.isValidCoordinate(x, y);
+    }
+
+    // Буферы одного потока; растут под самую большую встреченную доску
+    private static final class Scratch {
+        private int[] queue = new int[0];
+        private int queueMask;
+        private int head;
+        private int tail;
+        private long[] visited = new long[0];
+        private int[] parent = new int[0];
+        private int[] depth = new int[0];
+
+        void reset(int cellCount) {
+            if (parent.length < cellCount) {
+                int capacity = Integer.highestOneBit(Math.max(1, cellCount - 1)) << 1;
+                queue = new int[capacity];
+                queueMask = capacity - 1;
+                visited = new long[(cellCount + 63) >>> 6];
+                parent = new int[cellCount];
+                depth = new int[cellCount];
+            }
+            Arrays.fill(visited, 0L);
+            head = 0;
+            tail = 0;
+        }
+
+        void offer(int cell) {
+            queue[tail & queueMask] = cell;
+            tail++;
+        }
+
+        int poll() {
+            return queue[head++ & queueMask];
+        }
+
+        void visit(int cell) {
+            visited[cell >>> 6] |= 1L << cell;
+        }
+
+        boolean isVisited(int cell) {
+            return (visited[cell >>> 6] & (1L << cell)) != 0;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package max.iv.labyrinth_game.service.game;
+
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.GameRecording;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Marker;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Запись партий и перемотка к любому ходу. GameService сообщает сюда о каждом действии; записи живут
+ * дольше комнат — хранятся последние maxStoredGames партий. Состояние на ходу N восстанавливается
+ * с ближайшего снимка не позже N и доигрыванием записанных действий.
+ */
+@Slf4j
+@Service
+public class ReplayService {
+
+    private final BoardShiftService boardShiftService;
+    private final int snapshotInterval;
+    private final Map<String, GameRecording> recordings;
+
+    @Autowired
+    public ReplayService(BoardShiftService boardShiftService,
+                         @Value("${game.replay.snapshot-interval:8}") int snapshotInterval,
+                         @Value("${game.replay.max-stored-games:500}") int maxStoredGames) {
+        if (snapshotInterval < 1 || maxStoredGames < 1) {
+            throw new IllegalArgumentException("Replay snapshot interval and storage size must be positive.");
+        }
+        this.boardShiftService = boardShiftService;
+        this.snapshotInterval = snapshotInterval;
+        this.recordings = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GameRecording> eldest) {
+                return size() > maxStoredGames;
+            }
+        });
+    }
+
+    // Вызывается сразу после раскладки: стартовое состояние — нулевой снимок
+    public void startRecording(GameRoom room) {
+        int boardSize = room.getBoard().getSize();
+        GameRecording recording = new GameRecording(room.getRoomId(), room.getRoomName(), room.getMaxPlayers(),
+                room.getSeed(), boardSize);
+        recording.addSnapshot(room);
+        room.setRecording(recording);
+        recordings.put(room.getRoomId(), recording);
+    }
+
+    public void recordShift(GameRoom room, int seat, int shiftIndex, Direction direction) {
+        if (room.getRecording() != null) {
+            room.getRecording().recordShift(seat, shiftIndex, direction);
+        }
+    }
+
+    // Вызывается, когда ход завершён (передан следующему или партия выиграна)
+    public void recordMove(GameRoom room, int seat, int x, int y) {
+        GameRecording recording = room.getRecording();
+        if (recording == null) return;
+        recording.recordMove(seat, x, y);
+        if (recording.getTurnCount() % snapshotInterval == 0) {
+            recording.addSnapshot(room);
+        }
+    }
+
+    public void recordRemoval(GameRoom room, int seat) {
+        if (room.getRecording() != null) {
+            room.getRecording().recordRemoval(seat);
+        }
+    }
+
+    public void recordGameOver(GameRoom room) {
+        if (room.getRecording() != null) {
+            room.getRecording().recordEnd();
+        }
+    }
+
+    public Optional<GameRecording> findRecording(String roomId) {
+        return Optional.ofNullable(recordings.get(roomId));
+    }
+
+    /**
+     * Отдельная комната (не зарегистрированная в RoomService) в состоянии после turn ходов.
+     */
+    public GameRoom replayAt(GameRecording recording, int turn) {
+        int turnCount = recording.getTurnCount();
+        if (turn < 0 || turn > turnCount) {
+            throw new IllegalArgumentException("Turn must be between 0 and " + turnCount + ". Received: " + turn);
+        }
+        GameRecording.Snapshot snapshot = recording.snapshotAtOrBefore(turn);
+        GameRoom room = restore(recording, snapshot);
+        byte[] actions = recording.actionsFrom(snapshot.actionOffset());
+        int currentTurn = snapshot.turn();
+        for (int offset = 0; offset < actions.length; offset += GameRecording.actionLength(actions[offset])) {
+            int operation = GameRecording.operation(actions[offset]);
+            // После последнего хода доигрываем и выбывания с концом партии, иначе останавливаемся на ходу turn
+            boolean trailing = turn == turnCount && operation != GameRecording.OP_SHIFT && operation != GameRecording.OP_MOVE;
+            if (currentTurn >= turn && !trailing) break;
+            if (apply(room, actions, offset)) {
+                currentTurn++;
+            }
+        }
+        return room;
+    }
+
+    private GameRoom restore(GameRecording recording, GameRecording.Snapshot snapshot) {
+        GameRoom room = new GameRoom(recording.getRoomId(), recording.getMaxPlayers(), recording.getRoomName());
+        room.setSeed(recording.getSeed());
+        room.setBoardSize(recording.getBoardSize());
+        room.setBoard(snapshot.board().toBoard());
+        snapshot.players().forEach(state -> room.addPlayer(state.toPlayer()));
+        room.setCurrentPlayerIndex(snapshot.currentPlayerIndex());
+        room.setGamePhase(snapshot.phase());
+        if (snapshot.winnerId() != null) {
+            room.getPlayers().stream().filter(p -> p.getId().equals(snapshot.winnerId())).findFirst()
+                    .ifPresent(room::setWinner);
+        }
+        return room;
+    }
+
+    // Применяет действие по правилам GameService; true — это было перемещение, ход закончен
+    private boolean apply(GameRoom room, byte[] actions, int offset) {
+        byte header = actions[offset];
+        int seat = GameRecording.seat(header);
+        List<Player> players = room.getPlayers();
+        switch (GameRecording.operation(header)) {
+            case GameRecording.OP_SHIFT -> {
+                room.setCurrentPlayerIndex(seat);
+                boardShiftService.applyShift(room.getBoard(), actions[offset + 1], GameRecording.direction(header), players);
+                room.setGamePhase(GamePhase.PLAYER_MOVE);
+                return false;
+            }
+            case GameRecording.OP_MOVE -> {
+                Player player = players.get(seat);
+                int x = actions[offset + 1];
+                int y = actions[offset + 2];
+                // Как в GameService: маркер подбирается только при перемещении, а не когда игрок остался на месте
+                if (player.getCurrentX() != x || player.getCurrentY() != y) {
+                    player.moveTo(x, y);
+                    collectMarker(room.getBoard(), player);
+                }
+                if (player.isReadyToWin()) {
+                    room.setWinner(player);
+                    room.setGamePhase(GamePhase.GAME_OVER);
+                } else {
+                    room.nextTurn();
+                }
+                return true;
+            }
+            case GameRecording.OP_REMOVE -> {
+                boolean wasCurrent = room.getCurrentPlayerIndex() == seat;
+                players.remove(seat);
+                room.invalidateReachableCells();
+                if (players.size() < 2 && room.getGamePhase().isActivePlayPhase()) {
+                    room.setGamePhase(GamePhase.GAME_OVER);
+                    room.setWinner(players.size() == 1 ? players.get(0) : null);
+                } else if (wasCurrent && room.getGamePhase().isActivePlayPhase()) {
+                    room.setCurrentPlayerIndex(0);
+                    room.setGamePhase(GamePhase.PLAYER_SHIFT);
+                }
+                return false;
+            }
+            default -> {
+                room.setGamePhase(GamePhase.GAME_OVER);
+                return false;
+            }
+        }
+    }
+
+    private static void collectMarker(Board board, Player player) {
+        int slot = player.getCurrentY() * board.getSize() + player.getCurrentX();
+        Marker marker = board.getMarker(slot);
+        if (marker != null && player.getTargetMarkerIds().contains(marker.getId())) {
+            player.collectMarker(marker);
+            board.setMarker(slot, null);
+        }
+    }
+}
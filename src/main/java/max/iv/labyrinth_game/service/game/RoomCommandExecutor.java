@@ -0,0 +1,184 @@
+package max.iv.labyrinth_game.service.game;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Почтовые ящики комнат: все команды, меняющие комнату (ходы, вход и выход, отключения, боты),
+ * выполняются строго по одной на комнату, поэтому GameService и модель работают без блокировок.
+ * Ящики разбираются общим пулом: за один заход берётся не больше DRAIN_BATCH команд, после чего
+ * ящик встаёт в очередь пула заново — одна занятая комната не задерживает остальные.
+ * Глубина ящика ограничена: сверх mailboxCapacity команда отклоняется с ROOM_BUSY.
+ * При spring.threads.virtual.enabled=true каждый разбор ящика идёт в своём виртуальном потоке, и
+ * блокирующая команда не занимает поток пула; отправки клиентам и так уходят в очереди сессий
+ * (OutboundSendQueues). Порядок внутри комнаты держит сам ящик, а не число потоков.
+ */
+@Slf4j
+@Service
+public class RoomCommandExecutor {
+
+    static final int DRAIN_BATCH = 32;
+
+    private final int mailboxCapacity;
+    private final ExecutorService pool;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final AtomicLong executedCommands = new AtomicLong();
+    private final AtomicLong rejectedCommands = new AtomicLong();
+    private final AtomicInteger peakDepth = new AtomicInteger();
+
+    private static final class Mailbox {
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        // Команды в очереди плюс выполняемая сейчас; 0 — ящик простаивает и его можно убрать
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+
+    public record MailboxStats(int activeMailboxes, int totalDepth, int maxDepth, int peakDepth,
+                               long executedCommands, long rejectedCommands) {
+    }
+
+    @Autowired
+    public RoomCommandExecutor(@Value("${game.rooms.mailbox-threads:4}") int threads,
+                               @Value("${game.rooms.mailbox-capacity:64}") int mailboxCapacity,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (threads < 1 || mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Mailbox thread count and capacity must be positive.");
+        }
+        this.mailboxCapacity = mailboxCapacity;
+        this.pool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("room-mailbox-", 0).factory())
+                : Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("room-mailbox-", 0).factory());
+        log.info("Room mailboxes run on {}.", virtualThreads ? "virtual threads" : threads + " platform threads");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Ставит команду в ящик комнаты. Ошибки самой команды только логируются — о них команда
+     * сообщает сама (например, отправкой ошибки в сессию).
+     *
+     * @throws GameLogicException с ROOM_BUSY, если ящик комнаты заполнен
+     */
+    public void execute(String roomId, Runnable command) {
+        enqueue(roomId, command);
+    }
+
+    /**
+     * Выполняет вычисление в ящике комнаты; результат или исключение приходят через future.
+     */
+    public <T> CompletableFuture<T> submit(String roomId, Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(roomId, () -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private void enqueue(String roomId, Runnable command) {
+        AtomicBoolean accepted = new AtomicBoolean();
+        // Постановка и удаление простаивающего ящика идут через compute, поэтому у комнаты
+        // никогда не бывает двух ящиков с командами одновременно
+        Mailbox mailbox = mailboxes.compute(roomId, (id, existing) -> {
+            Mailbox box = existing != null ? existing : new Mailbox();
+            if (box.depth.get() < mailboxCapacity) {
+                box.queue.add(command);
+                peakDepth.accumulateAndGet(box.depth.incrementAndGet(), Math::max);
+                accepted.set(true);
+            }
+            return box;
+        });
+        if (!accepted.get()) {
+            rejectedCommands.incrementAndGet();
+            log.warn("Mailbox of room {} is full ({} commands). Command rejected.", roomId, mailboxCapacity);
+            throw new GameLogicException("Room " + roomId + " is busy. Please try again.", ErrorType.ROOM_BUSY);
+        }
+        schedule(mailbox);
+    }
+
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            pool.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        for (int i = 0; i < DRAIN_BATCH; i++) {
+            Runnable command = mailbox.queue.poll();
+            if (command == null) {
+                break;
+            }
+            try {
+                command.run();
+            } catch (Throwable e) {
+                // Ящик не должен застрять из-за одной упавшей команды
+                log.error("Room command failed: {}", e.getMessage(), e);
+            } finally {
+                mailbox.depth.decrementAndGet();
+                executedCommands.incrementAndGet();
+            }
+        }
+        mailbox.scheduled.set(false);
+        // Команда могла прийти между последним poll и сбросом флага
+        if (!mailbox.queue.isEmpty()) {
+            schedule(mailbox);
+        }
+    }
+
+    public int getMailboxDepth(String roomId) {
+        Mailbox mailbox = mailboxes.get(roomId);
+        return mailbox == null ? 0 : mailbox.depth.get();
+    }
+
+    public MailboxStats getStats() {
+        int active = 0;
+        int total = 0;
+        int max = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            int depth = mailbox.depth.get();
+            if (depth > 0) {
+                active++;
+                total += depth;
+                max = Math.max(max, depth);
+            }
+        }
+        return new MailboxStats(active, total, max, peakDepth.get(), executedCommands.get(), rejectedCommands.get());
+    }
+
+    // Убирает простаивающие ящики (комнаты без команд, в том числе удалённые) и пишет метрики
+    @Scheduled(fixedDelayString = "${game.rooms.mailbox-sweep-ms:60000}")
+    public void sweep() {
+        for (String roomId : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(roomId, (id, box) -> box.depth.get() == 0 ? null : box);
+        }
+        MailboxStats stats = getStats();
+        log.debug("Room mailboxes: {} active, depth total {} / max {} / peak {}; {} commands executed, {} rejected.",
+                stats.activeMailboxes(), stats.totalDepth(), stats.maxDepth(), stats.peakDepth(),
+                stats.executedCommands(), stats.rejectedCommands());
+    }
+}
@@ -1,6 +1,7 @@
 package max.iv.labyrinth_game.service.game;
 
 import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.config.game.BoardConfigLoader;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.enums.PlayerStatus;
 import max.iv.labyrinth_game.websocket.dto.RoomInfoDTO;
@@ -22,15 +23,25 @@ public class RoomService {
     private final Map<String, GameRoom> gameRooms = new ConcurrentHashMap<>();
     private final ApplicationEventPublisher eventPublisher;
     private final GameValidator gameValidator;
-    public RoomService(ApplicationEventPublisher eventPublisher, GameValidator gameValidator) {
+    private final BoardConfigLoader boardConfigLoader;
+    public RoomService(ApplicationEventPublisher eventPublisher, GameValidator gameValidator, BoardConfigLoader boardConfigLoader) {
         this.eventPublisher = eventPublisher;
         this.gameValidator = gameValidator;
+        this.boardConfigLoader = boardConfigLoader;
     }
     public GameRoom createRoom(int maxPlayers,String roomName) {
+        return createRoom(maxPlayers, roomName, 0);
+    }
+
+    // boardSize = 0 — доска из board-layout.json, иначе нечётный размер, доска генерируется
+    public GameRoom createRoom(int maxPlayers, String roomName, int boardSize) {
         validateMaxPlayers(maxPlayers);
+        boardConfigLoader.validateBoardSize(boardSize);
         GameRoom room = new GameRoom(maxPlayers,roomName);
+        room.setBoardSize(boardSize);
         gameRooms.put(room.getRoomId(), room);
-        log.info("Room created: {} with max players: {} room name {}", room.getRoomId(), maxPlayers,roomName);
+        log.info("Room created: {} with max players: {} room name {} board size {}", room.getRoomId(), maxPlayers, roomName,
+                boardSize == 0 ? "default" : boardSize);
         return room;
     }
 
@@ -92,6 +103,10 @@ public class RoomService {
         );
     }
 
+    public List<GameRoom> getAllRooms() {
+        return List.copyOf(gameRooms.values());
+    }
+
     public long getTotalRoomCount() {
         return gameRooms.size();
     }
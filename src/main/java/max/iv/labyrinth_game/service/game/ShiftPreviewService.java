@@ -0,0 +1,64 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.Tile;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Предпросмотр сдвига: результат считается на черновой копии доски, GameRoom не меняется.
+ */
+@Service
+public class ShiftPreviewService {
+
+    private final BoardShiftService boardShiftService;
+    private final GameValidator gameValidator;
+
+    // line — тайлы сдвинутой линии по возрастанию координаты; Tile здесь — представления черновой доски
+    public record ShiftPreview(int shiftIndex, Direction direction, List<Tile> line, Tile extraTile,
+                               int playerX, int playerY, int[] reachableCells) {
+    }
+
+    @Autowired
+    public ShiftPreviewService(BoardShiftService boardShiftService, GameValidator gameValidator) {
+        this.boardShiftService = boardShiftService;
+        this.gameValidator = gameValidator;
+    }
+
+    public ShiftPreview preview(GameRoom room, UUID playerId, int shiftIndex, Direction direction) {
+        if (room.getGamePhase() != GamePhase.PLAYER_SHIFT || room.getBoard() == null) {
+            throw new GameLogicException("Shift preview is only available during the shift phase", ErrorType.INVALID_PHASE_FOR_ACTION);
+        }
+        gameValidator.validatePlayerTurn(room, playerId);
+        Player player = room.getCurrentPlayer();
+
+        Board scratch = new Board(room.getBoard());
+        try {
+            boardShiftService.shiftTiles(scratch, shiftIndex, direction);
+        } catch (IllegalArgumentException e) {
+            throw new GameLogicException(e.getMessage(), ErrorType.INVALID_SHIFT);
+        }
+        int size = scratch.getSize();
+        int playerCell = BoardShiftService.shiftedCellIndex(size,
+                player.getCurrentY() * size + player.getCurrentX(), shiftIndex, direction);
+
+        boolean column = direction == Direction.NORTH || direction == Direction.SOUTH;
+        List<Tile> line = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            line.add(column ? scratch.getCell(shiftIndex, i).getTile() : scratch.getCell(i, shiftIndex).getTile());
+        }
+        int[] reachable = scratch.getConnectivity().cellsConnectedTo(playerCell).stream().toArray();
+        return new ShiftPreview(shiftIndex, direction, line, scratch.getExtraTile(),
+                playerCell % size, playerCell / size, reachable);
+    }
+}
@@ -0,0 +1,100 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Перебор всех допустимых ходов «сдвиг + перемещение» текущего игрока.
+ * Комната не меняется: сдвиги применяются к черновой копии доски и сразу откатываются
+ * обратным сдвигом, достижимость берётся из индекса связности копии.
+ */
+@Service
+public class TurnEnumerator {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final BoardShiftService boardShiftService;
+
+    public record Turn(int shiftIndex, Direction direction, int targetX, int targetY) {
+    }
+
+    @Autowired
+    public TurnEnumerator(BoardShiftService boardShiftService) {
+        this.boardShiftService = boardShiftService;
+    }
+
+    public Stream<Turn> turns(GameRoom room) {
+        Player player = room.getCurrentPlayer();
+        if (room.getBoard() == null || player == null) {
+            return Stream.empty();
+        }
+        return turns(room.getBoard(), player.getCurrentX(), player.getCurrentY());
+    }
+
+    // Ходы фишки, стоящей на (playerX, playerY); результаты считаются лениво, по одному сдвигу за раз
+    public Stream<Turn> turns(Board board, int playerX, int playerY) {
+        if (!board.isValidCoordinate(playerX, playerY)) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(new TurnSpliterator(new Board(board), playerY * board.getSize() + playerX), false);
+    }
+
+    // Число вариантов сдвига: нечётные индексы в четырёх направлениях
+    public static int shiftOptionCount(int boardSize) {
+        return (boardSize / 2) * DIRECTIONS.length;
+    }
+
+    private final class TurnSpliterator extends Spliterators.AbstractSpliterator<Turn> {
+        private final Board scratch;
+        private final int playerCell;
+        private final int optionCount;
+        private int option = -1;
+        private int shiftIndex;
+        private Direction direction;
+        private BitSet targets = new BitSet();
+        private int nextTarget = -1;
+
+        TurnSpliterator(Board scratch, int playerCell) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            this.scratch = scratch;
+            this.playerCell = playerCell;
+            this.optionCount = shiftOptionCount(scratch.getSize());
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Turn> action) {
+            while (nextTarget < 0) {
+                if (++option >= optionCount) {
+                    return false;
+                }
+                loadOption();
+            }
+            int size = scratch.getSize();
+            action.accept(new Turn(shiftIndex, direction, nextTarget % size, nextTarget / size));
+            nextTarget = targets.nextSetBit(nextTarget + 1);
+            return true;
+        }
+
+        private void loadOption() {
+            int size = scratch.getSize();
+            shiftIndex = 1 + 2 * (option / DIRECTIONS.length);
+            direction = DIRECTIONS[option % DIRECTIONS.length];
+            boardShiftService.shiftTiles(scratch, shiftIndex, direction);
+            int shiftedPlayerCell = BoardShiftService.shiftedCellIndex(size, playerCell, shiftIndex, direction);
+            targets = scratch.getConnectivity().cellsConnectedTo(shiftedPlayerCell);
+            boardShiftService.shiftTiles(scratch, shiftIndex, direction.opposite());
+            nextTarget = targets.nextSetBit(0);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package max.iv.labyrinth_game.service.game.bot;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.ConnectivityIndex;
+import max.iv.labyrinth_game.model.game.Marker;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.TurnEnumerator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Выбор хода бота — expectimax на один ход соперника вперёд. Оценка своего хода (сдвиг + клетка):
+ * бонус за взятый маркер плюс среднее по всем сдвигам соперника от «насколько близко к цели
+ * окажется компонента, где будет стоять фишка». Каждый вариант сдвига — отдельная задача ForkJoinPool
+ * на своей копии доски; после дедлайна задачи возвращают лучшее из уже посчитанного.
+ */
+public class BotSearch {
+
+    static final double WIN_SCORE = 100_000;
+    static final double COLLECT_SCORE = 1_000;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final BoardShiftService boardShiftService;
+
+    // Снимок позиции для поиска: доска уже скопирована, комнату поиск не трогает
+    public record Position(Board board, int pawnCell, Set<Integer> remainingMarkerIds, int baseCell) {
+    }
+
+    public record Choice(TurnEnumerator.Turn turn, double score, int evaluatedOptions) {
+    }
+
+    private record Candidate(int target, double score) {
+    }
+
+    public BotSearch(BoardShiftService boardShiftService) {
+        this.boardShiftService = boardShiftService;
+    }
+
+    public Choice search(Position position, ForkJoinPool pool, long deadlineNanos) {
+        int size = position.board().getSize();
+        int optionCount = TurnEnumerator.shiftOptionCount(size);
+        List<OptionTask> tasks = new ArrayList<>(optionCount);
+        for (int option = 0; option < optionCount; option++) {
+            tasks.add(new OptionTask(position, option, deadlineNanos));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+
+        Choice best = null;
+        int evaluated = 0;
+        for (int option = 0; option < optionCount; option++) {
+            Candidate candidate = tasks.get(option).getRawResult();
+            if (candidate == null) continue;
+            evaluated++;
+            if (best == null || candidate.score() > best.score()) {
+                best = new Choice(toTurn(option, candidate.target(), size), candidate.score(), 0);
+            }
+        }
+        if (best == null) {
+            // Дедлайн истёк раньше, чем посчитался хоть один вариант: первый сдвиг, фишка стоит на месте
+            int stay = BoardShiftService.shiftedCellIndex(size, position.pawnCell(), shiftIndex(0), direction(0));
+            return new Choice(toTurn(0, stay, size), Double.NEGATIVE_INFINITY, 0);
+        }
+        return new Choice(best.turn(), best.score(), evaluated);
+    }
+
+    private static TurnEnumerator.Turn toTurn(int option, int target, int size) {
+        return new TurnEnumerator.Turn(shiftIndex(option), direction(option), target % size, target / size);
+    }
+
+    private static int shiftIndex(int option) {
+        return 1 + 2 * (option / DIRECTIONS.length);
+    }
+
+    private static Direction direction(int option) {
+        return DIRECTIONS[option % DIRECTIONS.length];
+    }
+
+    private final class OptionTask extends RecursiveTask<Candidate> {
+        private final Position position;
+        private final int option;
+        private final long deadlineNanos;
+
+        OptionTask(Position position, int option, long deadlineNanos) {
+            this.position = position;
+            this.option = option;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        protected Candidate compute() {
+            if (System.nanoTime() >= deadlineNanos) {
+                return null;
+            }
+            Board board = new Board(position.board());
+            int size = board.getSize();
+            boardShiftService.shiftTiles(board, shiftIndex(option), direction(option));
+            int pawn = BoardShiftService.shiftedCellIndex(size, position.pawnCell(), shiftIndex(option), direction(option));
+            BitSet reachable = board.getConnectivity().cellsConnectedTo(pawn);
+
+            Candidate best = null;
+            for (int target = reachable.nextSetBit(0); target >= 0; target = reachable.nextSetBit(target + 1)) {
+                double score = evaluate(board, target);
+                if (best == null || score > best.score()) {
+                    best = new Candidate(target, score);
+                }
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+            }
+            return best;
+        }
+
+        private double evaluate(Board board, int target) {
+            Set<Integer> remaining = position.remainingMarkerIds();
+            if (remaining.isEmpty()) {
+                if (target == position.baseCell()) {
+                    return WIN_SCORE;
+                }
+            }
+            Marker marker = board.getMarker(target);
+            boolean collects = marker != null && remaining.contains(marker.getId());
+            int collectedId = collects ? marker.getId() : -1;
+            boolean headingHome = remaining.isEmpty() || (collects && remaining.size() == 1);
+
+            // Ход соперника — узел случая: все его сдвиги равновероятны
+            int size = board.getSize();
+            int optionCount = TurnEnumerator.shiftOptionCount(size);
+            double sum = 0;
+            for (int reply = 0; reply < optionCount; reply++) {
+                boardShiftService.shiftTiles(board, shiftIndex(reply), direction(reply));
+                int pawn = BoardShiftService.shiftedCellIndex(size, target, shiftIndex(reply), direction(reply));
+                sum -= distanceToGoal(board, pawn, collectedId, headingHome);
+                boardShiftService.shiftTiles(board, shiftIndex(reply), direction(reply).opposite());
+            }
+            return (collects ? COLLECT_SCORE : 0) + sum / optionCount;
+        }
+
+        // Манхэттенское расстояние от компоненты фишки до ближайшей цели; 0, если цель уже достижима
+        private int distanceToGoal(Board board, int pawn, int collectedId, boolean headingHome) {
+            int size = board.getSize();
+            int cellCount = size * size;
+            int[] goals = new int[headingHome ? 1 : position.remainingMarkerIds().size()];
+            int goalCount = 0;
+            if (headingHome) {
+                goals[goalCount++] = position.baseCell();
+            } else {
+                for (int markerId : position.remainingMarkerIds()) {
+                    int slot = board.getMarkerSlot(markerId);
+                    if (markerId != collectedId && slot >= 0 && slot < cellCount) {
+                        goals[goalCount++] = slot;
+                    }
+                }
+            }
+            if (goalCount == 0) {
+                return 0; // нужные маркеры сейчас на запасном тайле
+            }
+            ConnectivityIndex connectivity = board.getConnectivity();
+            int label = connectivity.getComponentLabel(pawn);
+            int best = Integer.MAX_VALUE;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (connectivity.getComponentLabel(cell) != label) continue;
+                for (int g = 0; g < goalCount; g++) {
+                    int distance = Math.abs(cell % size - goals[g] % size) + Math.abs(cell / size - goals[g] / size);
+                    best = Math.min(best, distance);
+                }
+            }
+            return best;
+        }
+    }
+}
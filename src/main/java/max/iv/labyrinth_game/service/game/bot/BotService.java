@@ -0,0 +1,285 @@
+package max.iv.labyrinth_game.service.game.bot;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import max.iv.labyrinth_game.model.game.Base;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.BoardVersion;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.model.game.enums.PlayerStatus;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
+import max.iv.labyrinth_game.service.game.RoomService;
+import max.iv.labyrinth_game.service.game.TurnEnumerator;
+import max.iv.labyrinth_game.service.game.actions.GameActionDispatcher;
+import max.iv.labyrinth_game.service.game.actions.MoveActionContext;
+import max.iv.labyrinth_game.service.game.actions.ShiftActionContext;
+import max.iv.labyrinth_game.websocket.events.lobby.LobbyRoomListNeedsUpdateEvent;
+import max.iv.labyrinth_game.websocket.events.lobby.RoomStateNeedsBroadcastEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Боты: дозаполняют комнаты, которые слишком долго ждут игроков, и ходят за себя и за
+ * отключившегося текущего игрока. Планировщик только ставит проверку в ящик комнаты
+ * (RoomCommandExecutor): решение, снимок позиции и применение хода, как и любые изменения
+ * комнаты, выполняются там; сам поиск идёт в отдельном ForkJoinPool
+ * ограниченного размера. Шаги хода связаны через CompletableFuture, а не join(): ожидание ящика
+ * не занимает поток пула поиска (join в потоке ForkJoinPool ещё и порождает компенсирующие
+ * потоки), поэтому search-threads — настоящий предел процессорного времени ботов. Семафор с тем же
+ * числом разрешений ограничивает число одновременных ходов ботов.
+ */
+@Slf4j
+@Service
+public class BotService {
+
+    private final RoomService roomService;
+    private final GameService gameService;
+    private final RoomCommandExecutor roomCommandExecutor;
+    private final GameActionDispatcher actionDispatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BotSearch botSearch;
+
+    private final boolean enabled;
+    private final long fillAfterMillis;
+    private final long disconnectGraceMillis;
+    private final long moveTimeNanos;
+    private final ForkJoinPool searchPool;
+    private final Semaphore searchPermits;
+
+    private final Set<String> roomsInSearch = ConcurrentHashMap.newKeySet();
+    // roomId -> с какого момента текущий игрок комнаты отключён
+    private final Map<String, DisconnectedTurn> disconnectedTurns = new ConcurrentHashMap<>();
+
+    private record DisconnectedTurn(UUID playerId, long sinceMillis) {
+    }
+
+    private record TurnSnapshot(Player player, BoardVersion boardVersion, int pawnCell, Set<Integer> remaining, int baseCell) {
+    }
+
+    private record PlannedTurn(Player player, TurnEnumerator.Turn turn) {
+    }
+
+    @Autowired
+    public BotService(RoomService roomService, GameService gameService, RoomCommandExecutor roomCommandExecutor,
+                      GameActionDispatcher actionDispatcher,
+                      BoardShiftService boardShiftService, ApplicationEventPublisher eventPublisher,
+                      @Value("${game.bots.enabled:true}") boolean enabled,
+                      @Value("${game.bots.fill-after-ms:30000}") long fillAfterMillis,
+                      @Value("${game.bots.disconnect-grace-ms:20000}") long disconnectGraceMillis,
+                      @Value("${game.bots.move-time-ms:200}") long moveTimeMillis,
+                      @Value("${game.bots.search-threads:2}") int searchThreads) {
+        this.roomService = roomService;
+        this.gameService = gameService;
+        this.roomCommandExecutor = roomCommandExecutor;
+        this.actionDispatcher = actionDispatcher;
+        this.eventPublisher = eventPublisher;
+        this.botSearch = new BotSearch(boardShiftService);
+        this.enabled = enabled;
+        this.fillAfterMillis = fillAfterMillis;
+        this.disconnectGraceMillis = disconnectGraceMillis;
+        this.moveTimeNanos = TimeUnit.MILLISECONDS.toNanos(moveTimeMillis);
+        this.searchPool = new ForkJoinPool(searchThreads);
+        this.searchPermits = new Semaphore(searchThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchPool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${game.bots.tick-ms:500}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        Set<String> liveRooms = new HashSet<>();
+        for (GameRoom room : roomService.getAllRooms()) {
+            String roomId = room.getRoomId();
+            liveRooms.add(roomId);
+            if (roomsInSearch.contains(roomId)) {
+                continue;
+            }
+            // Состояние комнаты читается только в её ящике: вне его оно меняется под ногами
+            try {
+                roomCommandExecutor.execute(roomId, () -> checkRoom(room));
+            } catch (GameLogicException e) {
+                log.debug("Bot check for room {} skipped: {}", roomId, e.getMessage());
+            }
+        }
+        disconnectedTurns.keySet().retainAll(liveRooms);
+    }
+
+    // Выполняется в ящике комнаты
+    private void checkRoom(GameRoom room) {
+        long now = System.currentTimeMillis();
+        try {
+            if (room.getGamePhase() == GamePhase.WAITING_FOR_PLAYERS) {
+                fillRoomIfWaitedTooLong(room, now);
+            } else if (room.getGamePhase().isActivePlayPhase() && needsBotTurn(room, now)) {
+                startBotTurn(room);
+            }
+        } catch (RuntimeException e) {
+            log.error("Bot tick failed for room {}: {}", room.getRoomId(), e.getMessage(), e);
+        }
+    }
+
+    // Выполняется в ящике комнаты
+    private void fillRoomIfWaitedTooLong(GameRoom room, long now) {
+        if (now - room.getCreatedAtMillis() < fillAfterMillis || room.isFull()) {
+            return;
+        }
+        boolean humanWaiting = room.getPlayers().stream()
+                .anyMatch(p -> !p.isBot() && p.getStatus() == PlayerStatus.CONNECTED);
+        if (!humanWaiting) {
+            return;
+        }
+        String roomId = room.getRoomId();
+        int botNumber = 1;
+        while (!room.isFull() && room.getGamePhase() == GamePhase.WAITING_FOR_PLAYERS) {
+            Player bot = new Player(UUID.randomUUID(), "Bot " + botNumber++, new Base(0, 0, Set.of()));
+            bot.setBot(true);
+            gameService.addPlayerToRoom(roomId, bot); // заполнение комнаты запускает игру
+        }
+        log.info("Room {} waited {} ms for players and was filled with bots.", roomId, now - room.getCreatedAtMillis());
+        eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomId));
+        eventPublisher.publishEvent(new LobbyRoomListNeedsUpdateEvent(this));
+    }
+
+    // Выполняется в ящике комнаты
+    private boolean needsBotTurn(GameRoom room, long now) {
+        Player current = room.getCurrentPlayer();
+        if (current == null) {
+            return false;
+        }
+        if (current.isBot()) {
+            return true;
+        }
+        if (current.getStatus() != PlayerStatus.DISCONNECTED) {
+            disconnectedTurns.remove(room.getRoomId());
+            return false;
+        }
+        DisconnectedTurn mark = disconnectedTurns.compute(room.getRoomId(), (id, existing) ->
+                existing != null && existing.playerId().equals(current.getId()) ? existing : new DisconnectedTurn(current.getId(), now));
+        return now - mark.sinceMillis() >= disconnectGraceMillis;
+    }
+
+    // Выполняется в ящике комнаты: снимок берётся сразу, поиск и применение хода — дальше по цепочке
+    private void startBotTurn(GameRoom room) {
+        String roomId = room.getRoomId();
+        if (!roomsInSearch.add(roomId)) {
+            return;
+        }
+        if (!searchPermits.tryAcquire()) {
+            roomsInSearch.remove(roomId);
+            log.debug("Bot turn in room {} postponed: all search permits are in use.", roomId);
+            return;
+        }
+        try {
+            TurnSnapshot snapshot = snapshotTurn(room);
+            if (snapshot == null) {
+                finishSearch(roomId);
+                return;
+            }
+            CompletableFuture.supplyAsync(() -> searchTurn(roomId, snapshot), searchPool)
+                    .thenCompose(planned -> roomCommandExecutor.submit(roomId,
+                            () -> applyTurn(room, planned.player(), planned.turn())))
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            log.error("Bot turn failed in room {}: {}", roomId, cause.getMessage(), cause);
+                        }
+                        finishSearch(roomId);
+                    });
+        } catch (RuntimeException e) {
+            finishSearch(roomId);
+            throw e;
+        }
+    }
+
+    private void finishSearch(String roomId) {
+        searchPermits.release();
+        roomsInSearch.remove(roomId);
+    }
+
+    // Выполняется в пуле поиска, вне ящика комнаты
+    private PlannedTurn searchTurn(String roomId, TurnSnapshot snapshot) {
+        Player player = snapshot.player();
+        BotSearch.Position position = new BotSearch.Position(snapshot.boardVersion().toBoard(), snapshot.pawnCell(),
+                snapshot.remaining(), snapshot.baseCell());
+
+        long startedAt = System.nanoTime();
+        BotSearch.Choice choice = botSearch.search(position, searchPool, startedAt + moveTimeNanos);
+        TurnEnumerator.Turn turn = choice.turn();
+        log.info("Bot plays for {} in room {}: shift {} {}, move to ({},{}); score {}, {} shift options evaluated in {} ms.",
+                player.getName(), roomId, turn.shiftIndex(), turn.direction(), turn.targetX(), turn.targetY(),
+                choice.score(), choice.evaluatedOptions(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return new PlannedTurn(player, turn);
+    }
+
+    // Выполняется в ящике комнаты; null — искать нечего
+    private TurnSnapshot snapshotTurn(GameRoom room) {
+        Player player = room.getCurrentPlayer();
+        if (player == null || room.getBoard() == null || !room.getGamePhase().isActivePlayPhase()) {
+            return null;
+        }
+        if (room.getGamePhase() == GamePhase.PLAYER_MOVE) {
+            // Сдвиг уже сделан (например, игрок отключился посреди хода) — просто остаёмся на месте
+            finishMoveInPlace(room, player);
+            return null;
+        }
+        // В ящике берём только опубликованную версию доски; копию для поиска строим уже вне его
+        Board board = room.getBoard();
+        BoardVersion boardVersion = room.getBoardVersion() != null ? room.getBoardVersion() : BoardVersion.of(board);
+        int size = board.getSize();
+        Set<Integer> remaining = new HashSet<>(player.getTargetMarkerIds());
+        remaining.removeAll(player.getCollectedMarkerIds());
+        return new TurnSnapshot(player, boardVersion, player.getCurrentY() * size + player.getCurrentX(), remaining,
+                player.getBase().y() * size + player.getBase().x());
+    }
+
+    // Выполняется в ящике комнаты
+    private Void applyTurn(GameRoom room, Player player, TurnEnumerator.Turn turn) {
+        // Пока шёл поиск, ход мог смениться (игрок вернулся, вышел из комнаты и т.п.)
+        if (room.getCurrentPlayer() != player || room.getGamePhase() != GamePhase.PLAYER_SHIFT
+                || (!player.isBot() && player.getStatus() != PlayerStatus.DISCONNECTED)) {
+            return null;
+        }
+        try {
+            actionDispatcher.dispatchShiftAction(new ShiftActionContext(room, player.getId(), turn.shiftIndex(), turn.direction()));
+            actionDispatcher.dispatchMoveAction(new MoveActionContext(room, player.getId(), turn.targetX(), turn.targetY()));
+        } catch (GameLogicException e) {
+            log.warn("Bot turn rejected in room {}: Type={}, Message={}", room.getRoomId(), e.getErrorType(), e.getMessage());
+        }
+        eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, room.getRoomId()));
+        return null;
+    }
+
+    private void finishMoveInPlace(GameRoom room, Player player) {
+        try {
+            actionDispatcher.dispatchMoveAction(new MoveActionContext(room, player.getId(), player.getCurrentX(), player.getCurrentY()));
+        } catch (GameLogicException e) {
+            log.warn("Bot move rejected in room {}: Type={}, Message={}", room.getRoomId(), e.getErrorType(), e.getMessage());
+        }
+        eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, room.getRoomId()));
+    }
+}
@@ -2,20 +2,34 @@ package max.iv.labyrinth_game.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.mappers.game.GameStateMapper;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.websocket.dto.GameStateUpdateDTO;
 import max.iv.labyrinth_game.websocket.events.lobby.RoomStateNeedsBroadcastEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Рассылка состояния комнаты с объединением: запрос рассылки только помечает комнату грязной и
+ * ставит в её ящик одну команду сброса. Сброс выполняется сразу после текущей команды комнаты,
+ * поэтому сколько бы раз комнату ни пометили до него (событие и прямой вызов в одном ходе, волна
+ * отключений), состояние сериализуется один раз и каждому игроку уходит один кадр. Сброс идёт
+ * в ящике, так что состояние не читается одновременно с изменением. Если ящик переполнен,
+ * комната остаётся грязной и её подбирает периодический сброс.
+ */
 @Slf4j
 @Component
 public class GameStateBroadcaster {
@@ -23,16 +37,30 @@ public class GameStateBroadcaster {
     private final RoomService roomService;
     private final ObjectMapper objectMapper;
     private final GameStateMapper gameStateMapper;
+    private final RoomCommandExecutor roomCommandExecutor;
+
+    private final Set<String> dirtyRooms = ConcurrentHashMap.newKeySet();
+    // Комнаты, для которых сброс уже стоит в ящике
+    private final Set<String> flushQueued = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong serializations = new AtomicLong();
+    private final AtomicLong sentFrames = new AtomicLong();
+
+    public record BroadcastStats(long coalescedRequests, long serializations, long sentFrames) {
+    }
 
     @Autowired
     public GameStateBroadcaster(SessionManager sessionManager,
                                 RoomService roomService,
                                 ObjectMapper objectMapper,
-            GameStateMapper gameStateMapper){
+            GameStateMapper gameStateMapper,
+                                RoomCommandExecutor roomCommandExecutor){
         this.sessionManager = sessionManager;
         this.roomService = roomService;
         this.objectMapper = objectMapper;
         this.gameStateMapper = gameStateMapper;
+        this.roomCommandExecutor = roomCommandExecutor;
         log.info("GameStateBroadcaster initialized.");
     }
 
@@ -43,7 +71,7 @@ public class GameStateBroadcaster {
             return;
         }
         String roomId = event.getRoomId();
-        log.info("Event received: RoomStateNeedsBroadcastEvent for room {}. Broadcasting game state.", roomId);
+        log.debug("Event received: RoomStateNeedsBroadcastEvent for room {}. Marking room dirty.", roomId);
         try {
             broadcastGameStateToRoom(roomId);
         } catch (Exception e) {
@@ -51,11 +79,53 @@ public class GameStateBroadcaster {
         }
     }
 
+    /**
+     * Запрашивает рассылку состояния комнаты; повторные запросы до сброса объединяются в один.
+     */
     public void broadcastGameStateToRoom(String roomId) {
         if (roomId == null || roomId.isBlank()) {
             log.warn("Cannot broadcast game state: roomId is null or blank.");
             return;
         }
+        if (dirtyRooms.add(roomId)) {
+            scheduleFlush(roomId);
+        } else {
+            coalescedRequests.incrementAndGet();
+        }
+    }
+
+    private void scheduleFlush(String roomId) {
+        if (!flushQueued.add(roomId)) {
+            return;
+        }
+        try {
+            roomCommandExecutor.execute(roomId, () -> flush(roomId));
+        } catch (GameLogicException e) {
+            flushQueued.remove(roomId);
+            log.debug("Mailbox of room {} is full. Broadcast deferred to the next tick.", roomId);
+        }
+    }
+
+    // Страховка для комнат, сброс которых не удалось поставить в ящик
+    @Scheduled(fixedDelayString = "${game.broadcast.flush-tick-ms:50}")
+    public void flushDirtyRooms() {
+        for (String roomId : dirtyRooms) {
+            scheduleFlush(roomId);
+        }
+    }
+
+    private void flush(String roomId) {
+        flushQueued.remove(roomId);
+        if (dirtyRooms.remove(roomId)) {
+            sendGameState(roomId);
+        }
+    }
+
+    public BroadcastStats getStats() {
+        return new BroadcastStats(coalescedRequests.get(), serializations.get(), sentFrames.get());
+    }
+
+    private void sendGameState(String roomId) {
         GameRoom room = roomService.getRoom(roomId);
         if (room == null) {
             log.warn("Cannot broadcast game state: room {} not found.", roomId);
@@ -75,6 +145,7 @@ public class GameStateBroadcaster {
                     roomId, gameStateDto.getClass().getSimpleName(), e.getMessage());
             return;
         }
+        serializations.incrementAndGet();
 
         log.info("Broadcasting game state for room {} to {} players.",
                 roomId, room.getPlayers().size());
@@ -95,6 +166,7 @@ public class GameStateBroadcaster {
         if (session != null && session.isOpen()) {
             try {
                 session.sendMessage(new TextMessage(jsonMessage));
+                sentFrames.incrementAndGet();
                 log.debug("Sent to session {}: {}", session.getId(), jsonMessage.length() > 100 ? jsonMessage.substring(0, 100) + "..." : jsonMessage);
             } catch (IOException e) {
                 log.error("Error sending message to session {}: {}", session.getId(), e.getMessage());
@@ -37,8 +37,9 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     @Override
-    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessionManager.registerSession(session);
+    public void afterConnectionEstablished(WebSocketSession rawSession) throws Exception {
+        // Дальше работаем только с обёрткой: её отправки идут через исходящую очередь сессии
+        WebSocketSession session = sessionManager.registerSession(rawSession);
         log.info("CONNECTION ESTABLISHED: Session ID = {}, Remote Address = {}", session.getId(), session.getRemoteAddress());
         try {
             UUID userId = (UUID) session.getAttributes().get(SessionManager.USER_ID_ATTRIBUTE_KEY);
@@ -73,7 +74,8 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     @Override
-    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+    protected void handleTextMessage(WebSocketSession rawSession, TextMessage message) throws Exception {
+        WebSocketSession session = sessionManager.outboundSession(rawSession);
         String payload = message.getPayload();
         log.info("MESSAGE RECEIVED from session {}: {}", session.getId(), payload);
         try {
@@ -0,0 +1,128 @@
+package max.iv.labyrinth_game.websocket;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Исходящие очереди сессий. WebSocketSession.sendMessage не потокобезопасен, а писать в одну сессию
+ * могут рассыльщики, обработчики и SessionManager одновременно, поэтому каждая сессия оборачивается
+ * в QueuedSessionSender: отправка только кладёт кадр в очередь, а в сокет его пишет разбор очереди —
+ * не больше одного на сессию, так что медленный клиент не держит вызывающий поток. Каждый разбор идёт
+ * в своём виртуальном потоке независимо от spring.threads.virtual.enabled: запись в сокет блокирующая,
+ * и с общим пулом фиксированного размера несколько зависших клиентов остановили бы отправку всем.
+ * Очередь ограничена числом кадров, байтами и временем отправки; клиент, превысивший лимит,
+ * закрывается — на отдельном исполнителе, чтобы закрытие не ждало за зависшими записями. Зависшую
+ * запись без нового трафика находит периодический обход. Неотправленный кадр состояния
+ * (GameMessageType.stateFrameType) заменяется свежим кадром того же типа.
+ */
+@Slf4j
+@Component
+public class OutboundSendQueues {
+
+    private final int maxMessages;
+    private final int maxBytes;
+    private final long sendTimeLimitNanos;
+    private final ExecutorService drains;
+    private final ExecutorService evictions;
+    private final Set<QueuedSessionSender> senders = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong sentFrames = new AtomicLong();
+    private final AtomicLong replacedFrames = new AtomicLong();
+    private final AtomicLong slowConsumersClosed = new AtomicLong();
+
+    public record SendStats(long sentFrames, long replacedFrames, long slowConsumersClosed) {
+    }
+
+    @Autowired
+    public OutboundSendQueues(@Value("${game.websocket.send-queue-max-messages:64}") int maxMessages,
+                              @Value("${game.websocket.send-queue-max-bytes:524288}") int maxBytes,
+                              @Value("${game.websocket.send-time-limit-ms:10000}") long sendTimeLimitMs) {
+        if (maxMessages < 1 || maxBytes < 1 || sendTimeLimitMs < 1) {
+            throw new IllegalArgumentException("Send queue limits must be positive.");
+        }
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+        this.drains = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-send-", 0).factory());
+        this.evictions = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-evict-", 0).factory());
+        log.info("Outbound send queues: {} frames / {} bytes per session, send time limit {} ms.",
+                maxMessages, maxBytes, sendTimeLimitMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drains.shutdownNow();
+        evictions.shutdownNow();
+    }
+
+    public WebSocketSession wrap(WebSocketSession session) {
+        if (session instanceof QueuedSessionSender) {
+            return session;
+        }
+        QueuedSessionSender sender = new QueuedSessionSender(session, this);
+        senders.add(sender);
+        return sender;
+    }
+
+    // Закрывает клиентов, чья запись или старейший кадр в очереди висят дольше предела, даже если
+    // новых кадров для них нет; заодно забывает закрытые сессии
+    @Scheduled(fixedDelayString = "${game.websocket.send-sweep-ms:1000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (QueuedSessionSender sender : senders) {
+            if (!sender.isOpen()) {
+                senders.remove(sender);
+            } else {
+                sender.evictIfExpired(now);
+            }
+        }
+    }
+
+    public SendStats getStats() {
+        return new SendStats(sentFrames.get(), replacedFrames.get(), slowConsumersClosed.get());
+    }
+
+    int getMaxMessages() {
+        return maxMessages;
+    }
+
+    int getMaxBytes() {
+        return maxBytes;
+    }
+
+    long getSendTimeLimitNanos() {
+        return sendTimeLimitNanos;
+    }
+
+    void schedule(Runnable drain) {
+        drains.execute(drain);
+    }
+
+    void scheduleEviction(Runnable close) {
+        evictions.execute(close);
+    }
+
+    void frameSent() {
+        sentFrames.incrementAndGet();
+    }
+
+    void frameReplaced() {
+        replacedFrames.incrementAndGet();
+    }
+
+    void slowConsumerClosed() {
+        slowConsumersClosed.incrementAndGet();
+    }
+}
@@ -0,0 +1,207 @@
+package max.iv.labyrinth_game.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.websocket.dto.GameMessageType;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Сессия с исходящей очередью (см. OutboundSendQueues). Кадры пишутся в сокет строго по одному
+ * разбором очереди; остальные методы сессии уходят в исходную сессию без изменений.
+ */
+@Slf4j
+final class QueuedSessionSender extends WebSocketSessionDecorator {
+
+    static final int DRAIN_BATCH = 32;
+
+    // stateType == null — кадр, который нельзя заменить
+    private record Frame(WebSocketMessage<?> message, int bytes, GameMessageType stateType, long enqueuedAt) {
+    }
+
+    private final OutboundSendQueues queues;
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private int queuedBytes;
+    // Начало текущей записи в сокет; 0 — запись не идёт
+    private volatile long sendStartedAt;
+    private volatile boolean evicted;
+    // Закрытие, отложенное до отправки уже поставленных кадров
+    private volatile CloseStatus pendingClose;
+
+    QueuedSessionSender(WebSocketSession delegate, OutboundSendQueues queues) {
+        super(delegate);
+        this.queues = queues;
+    }
+
+    static GameMessageType stateFrameType(WebSocketMessage<?> message) {
+        return message instanceof TextMessage text ? GameMessageType.stateFrameType(text.getPayload()) : null;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (evicted || pendingClose != null || !isOpen()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (evictIfExpired(now)) {
+            return;
+        }
+        GameMessageType stateType = stateFrameType(message);
+        boolean replaced = false;
+        String overflow = null;
+        synchronized (frames) {
+            if (stateType != null) {
+                replaced = removeQueuedState(stateType);
+            }
+            if (frames.size() >= queues.getMaxMessages()) {
+                overflow = "queue exceeded " + queues.getMaxMessages() + " frames";
+            } else if (queuedBytes + message.getPayloadLength() > queues.getMaxBytes()) {
+                overflow = "queue exceeded " + queues.getMaxBytes() + " bytes";
+            } else {
+                frames.addLast(new Frame(message, message.getPayloadLength(), stateType, now));
+                queuedBytes += message.getPayloadLength();
+            }
+        }
+        if (replaced) {
+            queues.frameReplaced();
+        }
+        if (overflow != null) {
+            evict(overflow);
+            return;
+        }
+        schedule();
+    }
+
+    /**
+     * Закрывает клиента, если текущая запись или старейший кадр в очереди ждут дольше предела.
+     * Вызывается при каждой отправке и периодическим обходом OutboundSendQueues.
+     */
+    boolean evictIfExpired(long now) {
+        if (evicted) {
+            return true;
+        }
+        long started = sendStartedAt;
+        if (started != 0 && now - started > queues.getSendTimeLimitNanos()) {
+            evict("send in progress exceeded the time limit");
+            return true;
+        }
+        Frame oldest;
+        synchronized (frames) {
+            oldest = frames.peekFirst();
+        }
+        if (oldest != null && now - oldest.enqueuedAt() > queues.getSendTimeLimitNanos()) {
+            evict("oldest queued frame exceeded the time limit");
+            return true;
+        }
+        return false;
+    }
+
+    // Новое состояние встаёт в конец очереди, а неотправленное того же типа выбрасывается
+    private boolean removeQueuedState(GameMessageType stateType) {
+        for (Iterator<Frame> it = frames.iterator(); it.hasNext(); ) {
+            Frame frame = it.next();
+            if (frame.stateType() == stateType) {
+                it.remove();
+                queuedBytes -= frame.bytes();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(CloseStatus.NORMAL);
+    }
+
+    /**
+     * Закрывает сессию после того, как уйдут уже поставленные кадры (например, ошибка перед закрытием).
+     * Само закрытие выполняет разбор очереди: кадр закрытия пишется в тот же сокет и на вызывающем
+     * потоке ждал бы текущую отправку.
+     */
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        pendingClose = status;
+        schedule();
+    }
+
+    private void closeDelegate(CloseStatus status) {
+        if (!getDelegate().isOpen()) {
+            return;
+        }
+        try {
+            getDelegate().close(status);
+        } catch (IOException e) {
+            log.debug("Closing session {} failed: {}", getId(), e.getMessage());
+        }
+    }
+
+    int getQueuedFrames() {
+        synchronized (frames) {
+            return frames.size();
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            queues.schedule(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < DRAIN_BATCH && !evicted; i++) {
+            Frame frame;
+            synchronized (frames) {
+                frame = frames.pollFirst();
+                if (frame == null) {
+                    break;
+                }
+                queuedBytes -= frame.bytes();
+            }
+            sendStartedAt = System.nanoTime();
+            try {
+                getDelegate().sendMessage(frame.message());
+                queues.frameSent();
+            } catch (Exception e) {
+                log.warn("Error sending queued frame to session {}: {}", getId(), e.getMessage());
+            } finally {
+                long elapsed = System.nanoTime() - sendStartedAt;
+                sendStartedAt = 0;
+                if (elapsed > queues.getSendTimeLimitNanos()) {
+                    evict("send took " + elapsed / 1_000_000 + " ms");
+                }
+            }
+        }
+        scheduled.set(false);
+        // Кадр мог прийти между последним poll и сбросом флага
+        if (!evicted && getQueuedFrames() > 0) {
+            schedule();
+        } else if (pendingClose != null) {
+            closeDelegate(pendingClose);
+        }
+    }
+
+    private void evict(String reason) {
+        synchronized (frames) {
+            if (evicted) {
+                return;
+            }
+            evicted = true;
+            frames.clear();
+            queuedBytes = 0;
+        }
+        queues.slowConsumerClosed();
+        log.warn("Session {} is too slow ({}). Closing slow client.", getId(), reason);
+        // Закрываем на отдельном исполнителе: ни вызывающий (ящик комнаты, рассыльщик), ни закрытие
+        // не должны ждать зависшую запись
+        queues.scheduleEviction(() -> closeDelegate(CloseStatus.SESSION_NOT_RELIABLE));
+    }
+}
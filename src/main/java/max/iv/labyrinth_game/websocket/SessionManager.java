@@ -29,25 +29,40 @@ public class SessionManager{
     private final Map<UUID, String> playerIdToSessionId = new ConcurrentHashMap<>();
     private final SessionTerminationHandler terminationHandler;
     private final ObjectMapper objectMapper;
+    private final OutboundSendQueues outboundSendQueues;
     public static final String PLAYER_ID_ATTRIBUTE_KEY = "playerId";
     public static final String ROOM_ID_ATTRIBUTE_KEY = "roomId";
     public static final String USER_ID_ATTRIBUTE_KEY = "userId";
     public static final String USER_NAME_ATTRIBUTE_KEY = "userName";
 
     @Autowired
-    public SessionManager(ObjectMapper objectMapper,SessionTerminationHandler terminationHandler) {
+    public SessionManager(ObjectMapper objectMapper,SessionTerminationHandler terminationHandler,
+                          OutboundSendQueues outboundSendQueues) {
         this.objectMapper = objectMapper;
         this.terminationHandler = terminationHandler;
+        this.outboundSendQueues = outboundSendQueues;
         log.info("SessionManager initialized.");
     }
 
-    public void registerSession(WebSocketSession session) {
+    /**
+     * Регистрирует сессию и возвращает её обёртку с исходящей очередью — дальше вся работа идёт с ней.
+     */
+    public WebSocketSession registerSession(WebSocketSession session) {
         if (session == null) {
             log.warn("Attempted to register a null session.");
-            return;
+            return null;
         }
-        allActiveSessions.put(session.getId(), session);
+        WebSocketSession queued = outboundSendQueues.wrap(session);
+        allActiveSessions.put(session.getId(), queued);
         log.info("Session {} connected and registered. Total active sessions: {}", session.getId(), allActiveSessions.size());
+        return queued;
+    }
+
+    // Зарегистрированная обёртка сессии; отправка в исходную сессию в обход очереди небезопасна
+    public WebSocketSession outboundSession(WebSocketSession session) {
+        if (session == null) return null;
+        WebSocketSession queued = allActiveSessions.get(session.getId());
+        return queued != null ? queued : session;
     }
 
     public void associatePlayerWithSession(WebSocketSession session, UUID playerId, String roomId) {
@@ -67,7 +82,7 @@ public class SessionManager{
         session.getAttributes().put(PLAYER_ID_ATTRIBUTE_KEY, playerId);
         session.getAttributes().put(ROOM_ID_ATTRIBUTE_KEY, roomId);
 
-        authenticatedGameSessions.put(sessionId, session);
+        authenticatedGameSessions.put(sessionId, allActiveSessions.get(sessionId));
         playerIdToSessionId.put(playerId, sessionId);
 
         log.info("Associated session {} with Player ID {} and Room ID {}", sessionId, playerId, roomId);
@@ -139,7 +154,7 @@ public class SessionManager{
         if (session != null && session.isOpen()) {
             try {
                 String jsonMessage = objectMapper.writeValueAsString(payload);
-                session.sendMessage(new TextMessage(jsonMessage));
+                outboundSession(session).sendMessage(new TextMessage(jsonMessage));
                 log.debug("Sent (via SessionManager) to session {}: {}", session.getId(), jsonMessage.length() > 100 ? jsonMessage.substring(0,100) + "..." : jsonMessage);
             } catch (IOException e) {
                 log.error("Error sending message via SessionManager to session {}: PayloadClass={}, Error={}",
@@ -172,7 +187,7 @@ public class SessionManager{
             try {
                 ErrorMessageResponse errorResponse = new ErrorMessageResponse(messageText,errorType);
                 String jsonMessage = this.objectMapper.writeValueAsString(errorResponse);
-                session.sendMessage(new TextMessage(jsonMessage));
+                outboundSession(session).sendMessage(new TextMessage(jsonMessage));
             } catch (IOException e) {
                 log.error("Failed to send error message to session {}: {}", session.getId(), messageText, e);
             }
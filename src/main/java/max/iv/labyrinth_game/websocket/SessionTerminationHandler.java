@@ -2,8 +2,10 @@ package max.iv.labyrinth_game.websocket;
 
 import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.websocket.events.lobby.LobbyRoomListNeedsUpdateEvent;
 import max.iv.labyrinth_game.websocket.events.lobby.RoomStateNeedsBroadcastEvent;
+import max.iv.labyrinth_game.websocket.events.session.SessionClosedEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketSession;
@@ -14,16 +16,19 @@ import java.util.UUID;
 @Component
 public class SessionTerminationHandler {
     private final GameService gameService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final ApplicationEventPublisher eventPublisher;
 
-    public SessionTerminationHandler(GameService gameService,
+    public SessionTerminationHandler(GameService gameService, RoomCommandExecutor roomCommandExecutor,
                                      ApplicationEventPublisher eventPublisher) {
         this.gameService = gameService;
+        this.roomCommandExecutor = roomCommandExecutor;
         this.eventPublisher = eventPublisher;
     }
 
     public void handleSessionTermination(WebSocketSession session, UUID playerId, String roomId) {
         String sessionId = session.getId();
+        eventPublisher.publishEvent(new SessionClosedEvent(this, sessionId));
         if (playerId == null) {
             log.info("Handling termination for unauthenticated session {}", sessionId);
             log.debug("Publishing LobbyRoomListNeedsUpdateEvent for unauthenticated session {} termination.", sessionId);
@@ -33,15 +38,7 @@ public class SessionTerminationHandler {
         // Игрок был аутентифицирован (имеет playerId)
         try {
             if (roomId != null) {
-                gameService.handlePlayerDisconnect(playerId, roomId);
-                log.info("Player {} disconnected from room {}", playerId, roomId);
-
-                log.debug("Publishing RoomStateNeedsBroadcastEvent for room {}", roomId);
-                eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomId));
-
-                // Публикуем событие для обновления списка комнат в лобби
-                log.debug("Publishing LobbyRoomListNeedsUpdateEvent due to player disconnect from room");
-                eventPublisher.publishEvent(new LobbyRoomListNeedsUpdateEvent(this));
+                roomCommandExecutor.execute(roomId, () -> disconnectFromRoom(playerId, roomId));
             } else {
                 log.info("Player {} (session {}) was authenticated but not in a room. Initiating removal from lobby tracking.", playerId, sessionId);
 
@@ -52,4 +49,20 @@ public class SessionTerminationHandler {
             log.error("Error handling termination for player {}: {}", playerId, e.getMessage(), e);
         }
     }
+
+    private void disconnectFromRoom(UUID playerId, String roomId) {
+        try {
+            gameService.handlePlayerDisconnect(playerId, roomId);
+            log.info("Player {} disconnected from room {}", playerId, roomId);
+
+            log.debug("Publishing RoomStateNeedsBroadcastEvent for room {}", roomId);
+            eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomId));
+
+            // Публикуем событие для обновления списка комнат в лобби
+            log.debug("Publishing LobbyRoomListNeedsUpdateEvent due to player disconnect from room");
+            eventPublisher.publishEvent(new LobbyRoomListNeedsUpdateEvent(this));
+        } catch (Exception e) {
+            log.error("Error handling disconnect of player {} from room {}: {}", playerId, roomId, e.getMessage(), e);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.model.user.User;
 import max.iv.labyrinth_game.security.jwt.JwtUtils;
 import max.iv.labyrinth_game.security.service.UserDetailsServiceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
@@ -16,6 +17,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -41,8 +43,11 @@ public class JwtAuthHandshakeInterceptor implements HandshakeInterceptor {
                                    Map<String, Object> attributes) throws Exception {
         log.debug("Attempting JWT authentication for WebSocket handshake...");
 
-        String jwt = parseJwtFromRequest(request);
+        return authenticate(parseJwtFromRequest(request), attributes);
+    }
 
+    // Общая проверка токена для обоих транспортов: при успехе кладёт userId и userName в attributes
+    public boolean authenticate(String jwt, Map<String, Object> attributes) {
         if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
             String usernameOrEmail = jwtUtils.getEmailFromToken(jwt); // Предполагаем, что токен содержит email как subject
 
@@ -91,8 +96,28 @@ public class JwtAuthHandshakeInterceptor implements HandshakeInterceptor {
         log.debug("Attempting to parse JWT from request. Request URI: {}", request.getURI());
         log.debug("ServerHttpRequest actual class: {}", request.getClass().getName()); // Для отладки
 
+        String jwt = parseJwt(request.getHeaders(), request.getURI());
+        if (jwt != null) {
+            return jwt;
+        }
+
+        // Старый способ через ServletServerHttpRequest  для сравнения или если новый не сработает по какой-то причине)
+
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String tokenFromServletQuery = servletRequest.getServletRequest().getParameter("token");
+            if (StringUtils.hasText(tokenFromServletQuery)) {
+                log.debug("Found JWT in 'token' query parameter via ServletServerHttpRequest: {}", tokenFromServletQuery);
+                return tokenFromServletQuery;
+            }
+        }
+
+        log.warn("JWT not found in common places (Authorization header or 'token' query parameter). URI was: {}", request.getURI());
+        return null;
+    }
+
+    public String parseJwt(HttpHeaders headers, URI uri) {
         // Способ 1: Из заголовка Authorization
-        List<String> authorizationHeader = request.getHeaders().get("Authorization");
+        List<String> authorizationHeader = headers.get("Authorization");
         if (authorizationHeader != null && !authorizationHeader.isEmpty()) {
             String headerAuth = authorizationHeader.get(0);
             if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
@@ -102,7 +127,7 @@ public class JwtAuthHandshakeInterceptor implements HandshakeInterceptor {
         }
 
         // Способ 2: Из query параметра (более универсальный)
-        UriComponents uriComponents = UriComponentsBuilder.fromUri(request.getURI()).build();
+        UriComponents uriComponents = UriComponentsBuilder.fromUri(uri).build();
         MultiValueMap<String, String> queryParams = uriComponents.getQueryParams();
         String tokenFromQuery = queryParams.getFirst("token"); // getFirst вернет null, если параметра нет
 
@@ -110,18 +135,6 @@ public class JwtAuthHandshakeInterceptor implements HandshakeInterceptor {
             log.debug("Found JWT in 'token' query parameter using UriComponentsBuilder: {}", tokenFromQuery);
             return tokenFromQuery;
         }
-
-        // Старый способ через ServletServerHttpRequest  для сравнения или если новый не сработает по какой-то причине)
-
-        if (request instanceof ServletServerHttpRequest servletRequest) {
-            String tokenFromServletQuery = servletRequest.getServletRequest().getParameter("token");
-            if (StringUtils.hasText(tokenFromServletQuery)) {
-                log.debug("Found JWT in 'token' query parameter via ServletServerHttpRequest: {}", tokenFromServletQuery);
-                return tokenFromServletQuery;
-            }
-        }
-
-        log.warn("JWT not found in common places (Authorization header or 'token' query parameter). URI was: {}", request.getURI());
         return null;
     }
 }
@@ -19,6 +19,10 @@ import lombok.Setter;
         @JsonSubTypes.Type(value = JoinRoomRequest.class, name = "JOIN_ROOM"),
         @JsonSubTypes.Type(value = PlayerShiftActionRequest.class, name = "PLAYER_ACTION_SHIFT"),
         @JsonSubTypes.Type(value = PlayerMoveActionRequest.class, name = "PLAYER_ACTION_MOVE"),
+        @JsonSubTypes.Type(value = PreviewShiftRequest.class, name = "PREVIEW_SHIFT"),
+        @JsonSubTypes.Type(value = ShiftPreviewResponse.class, name = "SHIFT_PREVIEW"),
+        @JsonSubTypes.Type(value = HintRequest.class, name = "HINT_REQUEST"),
+        @JsonSubTypes.Type(value = HintResponse.class, name = "HINT"),
         @JsonSubTypes.Type(value = ErrorMessageResponse.class, name = "ERROR_MESSAGE"),
         @JsonSubTypes.Type(value = RoomCreatedResponse.class, name = "ROOM_CREATED"),
         @JsonSubTypes.Type(value = GameStateUpdateResponse.class, name = "GAME_STATE_UPDATE"),
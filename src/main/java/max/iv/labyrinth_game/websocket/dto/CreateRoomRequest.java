@@ -13,6 +13,9 @@ public class CreateRoomRequest extends BaseMessage {
     @Max(value = 4, message = "Maximum players cannot exceed 4")
     private int maxPlayers;
     private String name;
+    @Min(value = 5, message = "Board size must be at least 5")
+    @Max(value = 63, message = "Board size cannot exceed 63")
+    private Integer boardSize; // не задан — доска из board-layout.json
 
     public CreateRoomRequest(int maxPlayers,String name) {
         super(GameMessageType.CREATE_ROOM);
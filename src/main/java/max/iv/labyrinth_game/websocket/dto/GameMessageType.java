@@ -1,21 +1,49 @@
 package max.iv.labyrinth_game.websocket.dto;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum GameMessageType {
     CREATE_ROOM,
     JOIN_ROOM,
     PLAYER_ACTION_SHIFT, // Для действия сдвига
     PLAYER_ACTION_MOVE,  // Для действия перемещения
+    PREVIEW_SHIFT,       // Предпросмотр сдвига без применения
+    HINT_REQUEST,        // Подсказка лучшего сдвига и хода текущему игроку
 
     // Сервер -> Клиент
     ERROR_MESSAGE,       // Сообщение об ошибке
     ROOM_CREATED,        // Комната создана (ответ на CREATE_ROOM)
     JOIN_SUCCESS,        // Успешное присоединение (ответ на JOIN_ROOM)
     GAME_STATE_UPDATE,   // Обновление состояния игры
+    SHIFT_PREVIEW,       // Результат предпросмотра сдвига (ответ на PREVIEW_SHIFT)
+    HINT,                // Подсказка (ответ на HINT_REQUEST)
     WELCOME_MESSAGE,
     GAME_OVER_MESSAGE,
 
     ROOM_LIST_UPDATE,
     GET_ROOM_LIST_REQUEST,
     LEAVE_ROOM,
-    RECONNECT_TO_ROOM
+    RECONNECT_TO_ROOM;
+
+    // Кадры сервер -> клиент, каждый из которых целиком заменяет предыдущий такого же типа:
+    // неотправленный кадр такого типа в исходящей очереди сессии можно заменить свежим
+    private static final Set<GameMessageType> STATE_FRAME_TYPES = EnumSet.of(GAME_STATE_UPDATE, ROOM_LIST_UPDATE);
+    private static final String TYPE_PREFIX = "{\"type\":\"";
+
+    /**
+     * Тип кадра состояния по сериализованному сообщению (type — первое поле JSON) или null,
+     * если кадр не заменяемый.
+     */
+    public static GameMessageType stateFrameType(String json) {
+        if (json == null || !json.startsWith(TYPE_PREFIX)) {
+            return null;
+        }
+        for (GameMessageType type : STATE_FRAME_TYPES) {
+            if (json.startsWith(type.name() + "\"", TYPE_PREFIX.length())) {
+                return type;
+            }
+        }
+        return null;
+    }
 }
@@ -16,14 +16,16 @@ public record GameStateUpdateDTO (
         List<PlayerDTO> players,
         BoardDTO board,
         UUID winnerId,
-        String winnerName
+        String winnerName,
+        int[] reachableCells, // Клетки (y * size + x), доступные текущему игроку в фазе PLAYER_MOVE
+        String stateHash // Zobrist-хэш состояния (hex): клиент сверяет его со своим, чтобы заметить рассинхрон
 ) {
 
     public GameStateUpdateDTO(String roomId, String roomName,GamePhase currentPhase, PlayerDTO currentPlayer, List<PlayerDTO> players, BoardDTO board) {
-        this(GameMessageType.GAME_STATE_UPDATE, roomId, roomName,currentPhase, currentPlayer, players, board, null, null);
+        this(GameMessageType.GAME_STATE_UPDATE, roomId, roomName,currentPhase, currentPlayer, players, board, null, null, null, null);
     }
 
     public GameStateUpdateDTO(String roomId, String roomName,GamePhase currentPhase, List<PlayerDTO> players, BoardDTO board, UUID winnerId, String winnerName) {
-        this(GameMessageType.GAME_STATE_UPDATE, roomId,roomName, currentPhase, null, players, board, winnerId, winnerName);
+        this(GameMessageType.GAME_STATE_UPDATE, roomId,roomName, currentPhase, null, players, board, winnerId, winnerName, null, null);
     }
 }
@@ -0,0 +1,21 @@
+package max.iv.labyrinth_game.websocket.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class HintRequest extends BaseMessage {
+    @NotBlank(message = "Room ID cannot be blank")
+    private String roomId;
+
+    public HintRequest() {
+        super(GameMessageType.HINT_REQUEST);
+    }
+
+    public HintRequest(String roomId) {
+        this();
+        this.roomId = roomId;
+    }
+}
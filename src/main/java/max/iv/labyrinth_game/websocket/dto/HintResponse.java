@@ -0,0 +1,32 @@
+package max.iv.labyrinth_game.websocket.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import max.iv.labyrinth_game.model.game.MoveHint;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+
+// Подсказка хода; shiftIndex и shiftDirection — null, если сдвиг в этом ходу уже сделан
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class HintResponse extends BaseMessage {
+    private String roomId;
+    private Integer shiftIndex;
+    private Direction shiftDirection;
+    private int targetX;
+    private int targetY;
+    private boolean reachesGoal;
+    private boolean complete;
+
+    public HintResponse(String roomId, MoveHint hint) {
+        super(GameMessageType.HINT);
+        this.roomId = roomId;
+        this.shiftIndex = hint.shiftIndex();
+        this.shiftDirection = hint.direction();
+        this.targetX = hint.targetX();
+        this.targetY = hint.targetY();
+        this.reachesGoal = hint.reachesGoal();
+        this.complete = hint.complete();
+    }
+}
@@ -16,7 +16,7 @@ public class PlayerShiftActionRequest extends BaseMessage {
     private String roomId;
 
     @Min(value = 1, message = "Shift index must be positive and odd")
-    @Max(value = 5, message = "Shift index out of bounds for a 7x7 board")
+    @Max(value = 61, message = "Shift index out of bounds for the largest board")
     private int shiftIndex;
 
     @NotNull(message = "Shift direction cannot be null")
@@ -0,0 +1,30 @@
+package max.iv.labyrinth_game.websocket.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PreviewShiftRequest extends BaseMessage {
+    @NotBlank(message = "Room ID cannot be blank")
+    private String roomId;
+
+    @Min(value = 1, message = "Shift index must be positive and odd")
+    @Max(value = 61, message = "Shift index out of bounds for the largest board")
+    private int shiftIndex;
+
+    @NotNull(message = "Shift direction cannot be null")
+    private Direction shiftDirection;
+
+    public PreviewShiftRequest(String roomId, int shiftIndex, Direction shiftDirection) {
+        super(GameMessageType.PREVIEW_SHIFT);
+        this.roomId = roomId;
+        this.shiftIndex = shiftIndex;
+        this.shiftDirection = shiftDirection;
+    }
+}
@@ -0,0 +1,37 @@
+package max.iv.labyrinth_game.websocket.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import max.iv.labyrinth_game.dto.geme.TileDTO;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+
+import java.util.List;
+
+// Только то, что меняет сдвиг: новая линия, новый запасной тайл, позиция игрока и куда он сможет пойти
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ShiftPreviewResponse extends BaseMessage {
+    private String roomId;
+    private int shiftIndex;
+    private Direction shiftDirection;
+    private List<TileDTO> line;
+    private TileDTO extraTile;
+    private int playerX;
+    private int playerY;
+    private int[] reachableCells;
+
+    public ShiftPreviewResponse(String roomId, int shiftIndex, Direction shiftDirection, List<TileDTO> line,
+                                TileDTO extraTile, int playerX, int playerY, int[] reachableCells) {
+        super(GameMessageType.SHIFT_PREVIEW);
+        this.roomId = roomId;
+        this.shiftIndex = shiftIndex;
+        this.shiftDirection = shiftDirection;
+        this.line = line;
+        this.extraTile = extraTile;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.reachableCells = reachableCells;
+    }
+}
@@ -2,9 +2,11 @@ package max.iv.labyrinth_game.websocket.events.listener;
 
 import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Player;
 import max.iv.labyrinth_game.model.game.enums.PlayerStatus;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.websocket.SessionManager;
 import max.iv.labyrinth_game.websocket.events.lobby.PlayerReturnedToLobbyEvent;
@@ -22,12 +24,15 @@ import java.util.UUID;
 @Component
 public class GameReconnectionListener {
     private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final SessionManager sessionManager;
     private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public GameReconnectionListener(RoomService roomService, SessionManager sessionManager, ApplicationEventPublisher eventPublisher) {
+    public GameReconnectionListener(RoomService roomService, RoomCommandExecutor roomCommandExecutor,
+                                    SessionManager sessionManager, ApplicationEventPublisher eventPublisher) {
         this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
         this.sessionManager = sessionManager;
         this.eventPublisher = eventPublisher;
     }
@@ -38,6 +43,15 @@ public class GameReconnectionListener {
         UUID playerId = event.getPlayerId();
         String roomId = event.getRoomId();
 
+        try {
+            roomCommandExecutor.execute(roomId, () -> reconnect(session, playerId, roomId));
+        } catch (GameLogicException e) {
+            log.warn("Reconnection of player {} to room {} rejected: {}", playerId, roomId, e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        }
+    }
+
+    private void reconnect(WebSocketSession session, UUID playerId, String roomId) {
         try {
             GameRoom room = roomService.getRoom(roomId);
             Optional<Player> playerOpt = room.getPlayers().stream()
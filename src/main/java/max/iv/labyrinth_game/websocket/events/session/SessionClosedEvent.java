@@ -0,0 +1,17 @@
+package max.iv.labyrinth_game.websocket.events.session;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class SessionClosedEvent extends ApplicationEvent {
+    private final String sessionId;
+
+    public SessionClosedEvent(Object source, String sessionId) {
+        super(source);
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new IllegalArgumentException("Session ID cannot be null or blank for session closed event");
+        }
+        this.sessionId = sessionId;
+    }
+}
@@ -6,6 +6,7 @@ import max.iv.labyrinth_game.model.game.Base;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Player;
 import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.websocket.GameStateBroadcaster;
 import max.iv.labyrinth_game.websocket.SessionManager;
@@ -32,6 +33,7 @@ import static max.iv.labyrinth_game.websocket.config.JwtAuthHandshakeInterceptor
 public class CreateRoomMessageHandler implements WebSocketMessageHandler{
 
     private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final SessionManager sessionManager;
     private final GameStateBroadcaster gameStateBroadcaster;
     private final ObjectMapper objectMapper;
@@ -42,11 +44,13 @@ public class CreateRoomMessageHandler implements WebSocketMessageHandler{
 
     @Autowired
     public CreateRoomMessageHandler(RoomService roomService,
+                                    RoomCommandExecutor roomCommandExecutor,
                                     SessionManager sessionManager,
                                     GameStateBroadcaster gameStateBroadcaster,
                                     ObjectMapper objectMapper,
                                     GameService gameService, Validator validator, ApplicationEventPublisher eventPublisher) {
         this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
         this.sessionManager = sessionManager;
         this.gameStateBroadcaster = gameStateBroadcaster;
         this.objectMapper = objectMapper;
@@ -89,14 +93,28 @@ public class CreateRoomMessageHandler implements WebSocketMessageHandler{
                     ? "Комната " + userName
                     : roomNameFromRequest;
 
-            GameRoom createdRoom = roomService.createRoom(request.getMaxPlayers(),finalRoomName);
+            GameRoom createdRoom = roomService.createRoom(request.getMaxPlayers(), finalRoomName,
+                    request.getBoardSize() != null ? request.getBoardSize() : 0);
 
             log.info("Room {} created with name '{}' by user '{}'.",
                     createdRoom.getRoomId(), finalRoomName, userName);
             String roomId = createdRoom.getRoomId();
             Player creator = new Player(userId, userName, new Base(0, 0, Set.of()));
 
-            // 3. Добавляем создателя в комнату через GameService
+            // 3. Создатель входит в комнату через её ящик: комната уже видна в лобби, и к ней могут присоединяться
+            roomCommandExecutor.execute(roomId, () -> enterCreatedRoom(session, userId, roomId, creator));
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Failed to process CREATE_ROOM request for session {}: {}", session.getId(), e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), objectMapper);
+        } catch (Exception e) {
+            log.error("Unexpected error during CREATE_ROOM handling for session {}: {}", session.getId(), e.getMessage(), e);
+            sessionManager.sendErrorMessageToSession(session, "An error occurred while creating the room.", objectMapper);
+        }
+    }
+
+    private void enterCreatedRoom(WebSocketSession session, UUID userId, String roomId, Player creator) {
+        try {
             GameRoom roomWithCreator = gameService.addPlayerToRoom(roomId, creator);
             // 4. Ассоциируем WebSocket сессию с ID игрока и ID комнаты
             sessionManager.associatePlayerWithSession(session, userId, roomId);
@@ -112,15 +130,9 @@ public class CreateRoomMessageHandler implements WebSocketMessageHandler{
             // 7. Публикуем событие для обновления списка комнат в лобби
             log.debug("Publishing LobbyRoomListNeedsUpdateEvent after room creation: {}", roomId);
             eventPublisher.publishEvent(new LobbyRoomListNeedsUpdateEvent(this));
-
-
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            log.warn("Failed to process CREATE_ROOM request for session {}: {}", session.getId(), e.getMessage());
-            sessionManager.sendErrorMessageToSession(session, e.getMessage(), objectMapper);
         } catch (Exception e) {
-            log.error("Unexpected error during CREATE_ROOM handling for session {}: {}", session.getId(), e.getMessage(), e);
+            log.error("Creator {} could not enter room {}: {}", userId, roomId, e.getMessage(), e);
             sessionManager.sendErrorMessageToSession(session, "An error occurred while creating the room.", objectMapper);
         }
     }
 }
-
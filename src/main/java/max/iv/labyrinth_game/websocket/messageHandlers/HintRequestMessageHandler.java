@@ -0,0 +1,90 @@
+package max.iv.labyrinth_game.websocket.messageHandlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.service.game.HintService;
+import max.iv.labyrinth_game.service.game.RoomService;
+import max.iv.labyrinth_game.websocket.SessionManager;
+import max.iv.labyrinth_game.websocket.dto.BaseMessage;
+import max.iv.labyrinth_game.websocket.dto.GameMessageType;
+import max.iv.labyrinth_game.websocket.dto.HintRequest;
+import max.iv.labyrinth_game.websocket.dto.HintResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Component
+public class HintRequestMessageHandler implements WebSocketMessageHandler {
+
+    private final RoomService roomService;
+    private final HintService hintService;
+    private final SessionManager sessionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Autowired
+    public HintRequestMessageHandler(RoomService roomService, HintService hintService, SessionManager sessionManager,
+                                     ObjectMapper objectMapper, Validator validator) {
+        this.roomService = roomService;
+        this.hintService = hintService;
+        this.sessionManager = sessionManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public boolean supports(BaseMessage message) {
+        return message != null && message.getType() == GameMessageType.HINT_REQUEST;
+    }
+
+    @Override
+    public void handle(WebSocketSession session, BaseMessage message) throws Exception {
+        if (!(message instanceof HintRequest request)) {
+            log.error("Internal error: HintRequestMessageHandler received non-HintRequest: {}", message.getClass().getSimpleName());
+            sessionManager.sendErrorMessageToSession(session, "Internal server error: Invalid message type for HINT request.", objectMapper);
+            return;
+        }
+        if (sessionManager.validateRequestAndSendError(session, request, validator, "HINT_REQUEST")) {
+            return;
+        }
+        UUID playerId = sessionManager.getPlayerIdBySession(session);
+        String roomIdFromSession = sessionManager.getRoomIdBySession(session);
+        if (playerId == null || roomIdFromSession == null || !roomIdFromSession.equals(request.getRoomId())) {
+            log.warn("HINT_REQUEST from session {} rejected: player {} is not in room {}.",
+                    session.getId(), playerId, request.getRoomId());
+            sessionManager.sendErrorMessageToSession(session, "Player is not associated with this room.", ErrorType.UNAUTHORIZED);
+            return;
+        }
+
+        try {
+            GameRoom room = roomService.getRoom(roomIdFromSession);
+            // Проверка и снимок идут в ящике комнаты, расчёт — в пуле HintService; поток WebSocket не ждёт
+            hintService.requestHint(room, playerId).whenComplete((hint, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof GameLogicException e) {
+                    log.debug("Hint request failed for player {}: Type={}, Message={}", playerId, e.getErrorType(), e.getMessage());
+                    sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+                } else if (cause != null) {
+                    log.error("Hint computation failed for player {} in room {}: {}", playerId, room.getRoomId(), cause.getMessage(), cause);
+                    sessionManager.sendErrorMessageToSession(session, "Could not compute a hint.", ErrorType.UNKNOWN_ERROR);
+                } else {
+                    sessionManager.sendMessageToSession(session, new HintResponse(room.getRoomId(), hint), objectMapper);
+                }
+            });
+        } catch (GameLogicException e) {
+            log.debug("Hint request failed for player {}: Type={}, Message={}", playerId, e.getErrorType(), e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        } catch (Exception e) {
+            log.error("Unexpected error during HINT request for player {}: {}", playerId, e.getMessage(), e);
+            sessionManager.sendErrorMessageToSession(session, "An unexpected server error occurred.", ErrorType.UNKNOWN_ERROR);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import max.iv.labyrinth_game.model.game.Base;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.Player;
 import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.websocket.SessionManager;
 import max.iv.labyrinth_game.websocket.dto.BaseMessage;
@@ -35,17 +36,20 @@ public class JoinRoomMessageHandler implements WebSocketMessageHandler {
 
     private final GameService gameService;
     private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final SessionManager sessionManager;
     private final Validator validator;
     private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public JoinRoomMessageHandler(GameService gameService,
-                                  RoomService roomService, SessionManager sessionManager,
+                                  RoomService roomService, RoomCommandExecutor roomCommandExecutor,
+                                  SessionManager sessionManager,
                                   Validator validator,
                                   ApplicationEventPublisher eventPublisher) {
         this.gameService = gameService;
         this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
         this.sessionManager = sessionManager;
         this.validator = validator;
         this.eventPublisher = eventPublisher;
@@ -74,36 +78,45 @@ public class JoinRoomMessageHandler implements WebSocketMessageHandler {
             log.info("Handling JOIN_ROOM request from player {} ({}) for room {}", userName, userId, roomIdToJoin);
 
             try {
-                GameRoom room = roomService.getRoom(roomIdToJoin);
-
-                Optional<Player> existingPlayerOpt = room.getPlayers().stream()
-                        .filter(p -> p.getId().equals(userId))
-                        .findFirst();
-
-                if (existingPlayerOpt.isPresent()) {
-                    log.info("Player {} is re-joining room {} from lobby.", userId, roomIdToJoin);
-                } else {
-                    // СЦЕНАРИЙ 2: НОВЫЙ ИГРОК
-                    // Здесь мы вызываем gameService, как и раньше.
-                    log.info("Handling JOIN_ROOM request for new player {} for room {}", userName, roomIdToJoin);
-                    Player newPlayer = new Player(userId, userName, new Base(0, 0, Set.of()));
-                    gameService.addPlayerToRoom(roomIdToJoin, newPlayer);
-                }
-
-                // 3. Если не было исключений, значит все прошло успешно. Ассоциируем сессию.
-                sessionManager.associatePlayerWithSession(session, userId, roomIdToJoin);
-
-                // 4. Публикуем события для обновления UI у всех клиентов
-                eventPublisher.publishEvent(new PlayerNeedsRemovalFromLobbyEvent(this, userId));
-                eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomIdToJoin));
-                eventPublisher.publishEvent(new LobbyRoomListNeedsUpdateEvent(this));
-
-                log.info("Player {} successfully processed to join room {}", userName, roomIdToJoin);
-
-            } catch (GameLogicException | IllegalArgumentException e) {
-                log.warn("Failed to process JOIN_ROOM for player {} into room {}: {}", userId, roomIdToJoin, e.getMessage());
-                // Отправляем понятное сообщение об ошибке на фронт
-                sessionManager.sendErrorMessageToSession(session, e.getMessage(), ErrorType.ROOM_IS_FULL);
+                roomCommandExecutor.execute(roomIdToJoin, () -> joinRoom(session, userId, userName, roomIdToJoin));
+            } catch (GameLogicException e) {
+                log.warn("JOIN_ROOM for player {} into room {} rejected: {}", userId, roomIdToJoin, e.getMessage());
+                sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
             }
     }
+
+    private void joinRoom(WebSocketSession session, UUID userId, String userName, String roomIdToJoin) {
+        try {
+            GameRoom room = roomService.getRoom(roomIdToJoin);
+
+            Optional<Player> existingPlayerOpt = room.getPlayers().stream()
+                    .filter(p -> p.getId().equals(userId))
+                    .findFirst();
+
+            if (existingPlayerOpt.isPresent()) {
+                log.info("Player {} is re-joining room {} from lobby.", userId, roomIdToJoin);
+            } else {
+                // СЦЕНАРИЙ 2: НОВЫЙ ИГРОК
+                // Здесь мы вызываем gameService, как и раньше.
+                log.info("Handling JOIN_ROOM request for new player {} for room {}", userName, roomIdToJoin);
+                Player newPlayer = new Player(userId, userName, new Base(0, 0, Set.of()));
+                gameService.addPlayerToRoom(roomIdToJoin, newPlayer);
+            }
+
+            // 3. Если не было исключений, значит все прошло успешно. Ассоциируем сессию.
+            sessionManager.associatePlayerWithSession(session, userId, roomIdToJoin);
+
+            // 4. Публикуем события для обновления UI у всех клиентов
+            eventPublisher.publishEvent(new PlayerNeedsRemovalFromLobbyEvent(this, userId));
+            eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomIdToJoin));
+            eventPublisher.publishEvent(new LobbyRoomListNeedsUpdateEvent(this));
+
+            log.info("Player {} successfully processed to join room {}", userName, roomIdToJoin);
+
+        } catch (GameLogicException | IllegalArgumentException e) {
+            log.warn("Failed to process JOIN_ROOM for player {} into room {}: {}", userId, roomIdToJoin, e.getMessage());
+            // Отправляем понятное сообщение об ошибке на фронт
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), ErrorType.ROOM_IS_FULL);
+        }
+    }
 }
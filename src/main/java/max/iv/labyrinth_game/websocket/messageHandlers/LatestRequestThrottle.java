@@ -0,0 +1,91 @@
+package max.iv.labyrinth_game.websocket.messageHandlers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ограничение частоты «важен только последний запрос»: по каждому ключу (сессии) хранится один
+ * ожидающий запрос, новый перезаписывает старый. Ответ выполняется не чаще раза в interval — сразу,
+ * если интервал с прошлого ответа уже прошёл, иначе в конце интервала и всегда для самого свежего
+ * запроса, поэтому после остановки потока запросов последним отвечен именно последний.
+ */
+@Slf4j
+final class LatestRequestThrottle<T> {
+
+    private final ScheduledExecutorService scheduler;
+    private final long intervalNanos;
+    private final Map<String, Slot<T>> slots = new ConcurrentHashMap<>();
+
+    private static final class Slot<T> {
+        private T pending;
+        private Consumer<T> action;
+        private long lastFiredNanos;
+        private ScheduledFuture<?> timer;
+
+        private Slot(long lastFiredNanos) {
+            this.lastFiredNanos = lastFiredNanos;
+        }
+    }
+
+    LatestRequestThrottle(ScheduledExecutorService scheduler, long intervalNanos) {
+        this.scheduler = scheduler;
+        this.intervalNanos = intervalNanos;
+    }
+
+    void submit(String key, T request, Consumer<T> action) {
+        Slot<T> slot = slots.computeIfAbsent(key, k -> new Slot<>(System.nanoTime() - intervalNanos));
+        synchronized (slot) {
+            slot.pending = request;
+            slot.action = action;
+            if (slot.timer == null) {
+                long delay = Math.max(0, slot.lastFiredNanos + intervalNanos - System.nanoTime());
+                slot.timer = scheduler.schedule(() -> fire(slot), delay, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Сессия закрыта: ожидающий запрос больше некому отвечать
+    void cancel(String key) {
+        Slot<T> slot = slots.remove(key);
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            slot.pending = null;
+            if (slot.timer != null) {
+                slot.timer.cancel(false);
+                slot.timer = null;
+            }
+        }
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    private void fire(Slot<T> slot) {
+        T request;
+        Consumer<T> action;
+        synchronized (slot) {
+            request = slot.pending;
+            action = slot.action;
+            slot.pending = null;
+            slot.timer = null;
+            slot.lastFiredNanos = System.nanoTime();
+        }
+        if (request == null) {
+            return;
+        }
+        try {
+            action.accept(request);
+        } catch (RuntimeException e) {
+            log.error("Throttled request failed: {}", e.getMessage(), e);
+        }
+    }
+}
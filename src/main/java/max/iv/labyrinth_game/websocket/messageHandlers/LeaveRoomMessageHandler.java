@@ -3,8 +3,10 @@ package max.iv.labyrinth_game.websocket.messageHandlers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.websocket.SessionManager;
 import max.iv.labyrinth_game.websocket.dto.BaseMessage;
@@ -23,6 +25,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class LeaveRoomMessageHandler implements WebSocketMessageHandler {
     private final GameService gameService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final SessionManager sessionManager;
     private final ApplicationEventPublisher eventPublisher;
     @Override
@@ -44,6 +47,15 @@ public class LeaveRoomMessageHandler implements WebSocketMessageHandler {
 
         log.info("Handling LEAVE_ROOM request from player {} in room {}", playerId, roomId);
 
+        try {
+            roomCommandExecutor.execute(roomId, () -> leaveRoom(session, playerId, roomId));
+        } catch (GameLogicException e) {
+            log.warn("LEAVE_ROOM for player {} in room {} rejected: {}", playerId, roomId, e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        }
+    }
+
+    private void leaveRoom(WebSocketSession session, UUID playerId, String roomId) {
         try {
             boolean roomWasRemoved = gameService.removePlayerFromRoom(playerId, roomId);
             sessionManager.returnPlayerToLobby(session.getId());
@@ -7,10 +7,10 @@ import max.iv.labyrinth_game.exceptions.ErrorType;
 import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.service.game.actions.GameActionDispatcher;
 import max.iv.labyrinth_game.service.game.actions.MoveActionContext;
-import max.iv.labyrinth_game.websocket.GameStateBroadcaster;
 import max.iv.labyrinth_game.websocket.SessionManager;
 import max.iv.labyrinth_game.websocket.dto.BaseMessage;
 import max.iv.labyrinth_game.websocket.dto.GameMessageType;
@@ -27,22 +27,21 @@ import java.util.UUID;
 @Component
 public class PlayerMoveActionMessageHandler implements WebSocketMessageHandler{
     private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final GameActionDispatcher actionDispatcher;
     private final SessionManager sessionManager;
-    private final GameStateBroadcaster gameStateBroadcaster;
     private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
     private final Validator validator;
 
     @Autowired
     public PlayerMoveActionMessageHandler(
-            RoomService roomService, GameActionDispatcher actionDispatcher, SessionManager sessionManager,
-            GameStateBroadcaster gameStateBroadcaster,
+            RoomService roomService, RoomCommandExecutor roomCommandExecutor, GameActionDispatcher actionDispatcher, SessionManager sessionManager,
             ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper, Validator validator) {
         this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
         this.actionDispatcher = actionDispatcher;
         this.sessionManager = sessionManager;
-        this.gameStateBroadcaster = gameStateBroadcaster;
         this.eventPublisher = eventPublisher;
         this.objectMapper = objectMapper;
         this.validator = validator;
@@ -95,7 +94,17 @@ public class PlayerMoveActionMessageHandler implements WebSocketMessageHandler{
                 playerId, request.getRoomId(), request.getTargetX(), request.getTargetY());
 
         try {
-            GameRoom room = roomService.getRoom(roomIdFromSession);
+            // Ход выполняется в ящике комнаты — строго после предыдущих команд этой комнаты
+            roomCommandExecutor.execute(roomIdFromSession, () -> performMove(session, playerId, roomIdFromSession, request));
+        } catch (GameLogicException e) {
+            log.warn("MOVE action for player {} rejected: {}", playerId, e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        }
+    }
+
+    private void performMove(WebSocketSession session, UUID playerId, String roomId, PlayerMoveActionRequest request) {
+        try {
+            GameRoom room = roomService.getRoom(roomId);
             // 2. Вызываем GameService для выполнения перемещения
             MoveActionContext context = new MoveActionContext(room, playerId,
                     request.getTargetX(),
@@ -103,12 +112,10 @@ public class PlayerMoveActionMessageHandler implements WebSocketMessageHandler{
 
             actionDispatcher.dispatchMoveAction(context);
 
-            eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomIdFromSession));
-
             // 3. Рассылаем обновленное состояние игры всем в комнате
-            gameStateBroadcaster.broadcastGameStateToRoom(request.getRoomId());
+            eventPublisher.publishEvent(new RoomStateNeedsBroadcastEvent(this, roomId));
 
-            log.info("Player {} successfully performed MOVE in room {}.", playerId, request.getRoomId());
+            log.info("Player {} successfully performed MOVE in room {}.", playerId, roomId);
             // 4. Проверяем, не закончилась ли игра после хода
             if (room.getGamePhase() == GamePhase.GAME_OVER && room.getWinner() != null) {
                 //gameStateBroadcaster.broadcastGameOver(updatedRoom.getRoomId(), updatedRoom.getWinner());
@@ -7,6 +7,7 @@ import max.iv.labyrinth_game.exceptions.ErrorType;
 import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.service.game.actions.GameActionDispatcher;
 import max.iv.labyrinth_game.service.game.actions.ShiftActionContext;
@@ -27,6 +28,7 @@ public class PlayerShiftActionMessageHandler implements WebSocketMessageHandler{
 
     private final GameActionDispatcher actionDispatcher;
     private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
     private final SessionManager sessionManager;
     private final GameStateBroadcaster gameStateBroadcaster;
     private final ObjectMapper objectMapper;
@@ -34,11 +36,12 @@ public class PlayerShiftActionMessageHandler implements WebSocketMessageHandler{
 
     @Autowired
     public PlayerShiftActionMessageHandler(
-                                           GameActionDispatcher actionDispatcher, RoomService roomService, SessionManager sessionManager,
+                                           GameActionDispatcher actionDispatcher, RoomService roomService, RoomCommandExecutor roomCommandExecutor, SessionManager sessionManager,
                                            GameStateBroadcaster gameStateBroadcaster,
                                            ObjectMapper objectMapper, Validator validator) {
         this.actionDispatcher = actionDispatcher;
         this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
         this.sessionManager = sessionManager;
         this.gameStateBroadcaster = gameStateBroadcaster;
         this.objectMapper = objectMapper;
@@ -91,7 +94,17 @@ public class PlayerShiftActionMessageHandler implements WebSocketMessageHandler{
                 playerId, request.getRoomId(), request.getShiftIndex(), request.getShiftDirection());
 
         try {
-            GameRoom room = roomService.getRoom(roomIdFromSession);
+            // Ход выполняется в ящике комнаты — строго после предыдущих команд этой комнаты
+            roomCommandExecutor.execute(roomIdFromSession, () -> performShift(session, playerId, roomIdFromSession, request));
+        } catch (GameLogicException e) {
+            log.warn("SHIFT action for player {} rejected: {}", playerId, e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        }
+    }
+
+    private void performShift(WebSocketSession session, UUID playerId, String roomId, PlayerShiftActionRequest request) {
+        try {
+            GameRoom room = roomService.getRoom(roomId);
             // 2. Создаем контекст для действия
             ShiftActionContext context = new ShiftActionContext(room, playerId,
                     request.getShiftIndex(),
@@ -100,9 +113,9 @@ public class PlayerShiftActionMessageHandler implements WebSocketMessageHandler{
             actionDispatcher.dispatchShiftAction(context);
 
             // Рассылаем обновленное состояние игры всем в комнате
-            gameStateBroadcaster.broadcastGameStateToRoom(request.getRoomId());
+            gameStateBroadcaster.broadcastGameStateToRoom(roomId);
 
-            log.info("Player {} successfully performed SHIFT in room {}.", playerId, request.getRoomId());
+            log.info("Player {} successfully performed SHIFT in room {}.", playerId, roomId);
 
         } catch (GameLogicException e) {
             log.warn("Shift action failed for player {}: Type={}, Message={}",
@@ -0,0 +1,131 @@
+package max.iv.labyrinth_game.websocket.messageHandlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.dto.geme.TileDTO;
+import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import max.iv.labyrinth_game.mappers.game.TileMapper;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
+import max.iv.labyrinth_game.service.game.RoomService;
+import max.iv.labyrinth_game.service.game.ShiftPreviewService;
+import max.iv.labyrinth_game.websocket.SessionManager;
+import max.iv.labyrinth_game.websocket.dto.BaseMessage;
+import max.iv.labyrinth_game.websocket.dto.GameMessageType;
+import max.iv.labyrinth_game.websocket.dto.PreviewShiftRequest;
+import max.iv.labyrinth_game.websocket.dto.ShiftPreviewResponse;
+import max.iv.labyrinth_game.websocket.events.session.SessionClosedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Slf4j
+@Component
+public class PreviewShiftMessageHandler implements WebSocketMessageHandler {
+
+    private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
+    private final ShiftPreviewService shiftPreviewService;
+    private final TileMapper tileMapper;
+    private final SessionManager sessionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ScheduledExecutorService previewScheduler;
+    // Предпросмотр шлётся при наведении: на сессию отвечаем не чаще раза в интервал и только на последний запрос
+    private final LatestRequestThrottle<PreviewShiftRequest> previewThrottle;
+
+    @Autowired
+    public PreviewShiftMessageHandler(RoomService roomService, RoomCommandExecutor roomCommandExecutor,
+                                      ShiftPreviewService shiftPreviewService,
+                                      TileMapper tileMapper, SessionManager sessionManager,
+                                      ObjectMapper objectMapper, Validator validator,
+                                      @Value("${game.preview.min-interval-ms:100}") long minIntervalMs) {
+        this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
+        this.shiftPreviewService = shiftPreviewService;
+        this.tileMapper = tileMapper;
+        this.sessionManager = sessionManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.previewScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("shift-preview-throttle").daemon().factory());
+        this.previewThrottle = new LatestRequestThrottle<>(previewScheduler, minIntervalMs * 1_000_000L);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        previewScheduler.shutdownNow();
+    }
+
+    @EventListener
+    public void handleSessionClosed(SessionClosedEvent event) {
+        previewThrottle.cancel(event.getSessionId());
+    }
+
+    @Override
+    public boolean supports(BaseMessage message) {
+        return message != null && message.getType() == GameMessageType.PREVIEW_SHIFT;
+    }
+
+    @Override
+    public void handle(WebSocketSession session, BaseMessage message) throws Exception {
+        if (!(message instanceof PreviewShiftRequest request)) {
+            log.error("Internal error: PreviewShiftMessageHandler received non-PreviewShiftRequest: {}", message.getClass().getSimpleName());
+            sessionManager.sendErrorMessageToSession(session, "Internal server error: Invalid message type for SHIFT preview.", objectMapper);
+            return;
+        }
+        if (sessionManager.validateRequestAndSendError(session, request, validator, "PREVIEW_SHIFT")) {
+            return;
+        }
+        UUID playerId = sessionManager.getPlayerIdBySession(session);
+        String roomIdFromSession = sessionManager.getRoomIdBySession(session);
+        if (playerId == null || roomIdFromSession == null || !roomIdFromSession.equals(request.getRoomId())) {
+            log.warn("PREVIEW_SHIFT from session {} rejected: player {} is not in room {}.",
+                    session.getId(), playerId, request.getRoomId());
+            sessionManager.sendErrorMessageToSession(session, "Player is not associated with this room.", ErrorType.UNAUTHORIZED);
+            return;
+        }
+
+        previewThrottle.submit(session.getId(), request, latest -> enqueuePreview(session, playerId, roomIdFromSession, latest));
+    }
+
+    private void enqueuePreview(WebSocketSession session, UUID playerId, String roomId, PreviewShiftRequest request) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            // Предпросмотр читает живую доску, поэтому тоже идёт через ящик комнаты
+            roomCommandExecutor.execute(roomId, () -> sendPreview(session, playerId, roomId, request));
+        } catch (GameLogicException e) {
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        }
+    }
+
+    private void sendPreview(WebSocketSession session, UUID playerId, String roomId, PreviewShiftRequest request) {
+        try {
+            GameRoom room = roomService.getRoom(roomId);
+            ShiftPreviewService.ShiftPreview preview = shiftPreviewService.preview(room, playerId,
+                    request.getShiftIndex(), request.getShiftDirection());
+            List<TileDTO> line = preview.line().stream().map(tileMapper::toDto).toList();
+            sessionManager.sendMessageToSession(session, new ShiftPreviewResponse(room.getRoomId(),
+                    preview.shiftIndex(), preview.direction(), line, tileMapper.toDto(preview.extraTile()),
+                    preview.playerX(), preview.playerY(), preview.reachableCells()), objectMapper);
+        } catch (GameLogicException e) {
+            log.debug("Shift preview failed for player {}: Type={}, Message={}", playerId, e.getErrorType(), e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        } catch (Exception e) {
+            log.error("Unexpected error during SHIFT preview for player {}: {}", playerId, e.getMessage(), e);
+            sessionManager.sendErrorMessageToSession(session, "An unexpected server error occurred.", ErrorType.UNKNOWN_ERROR);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package max.iv.labyrinth_game.websocket.messageHandlers;
 
 import lombok.extern.slf4j.Slf4j;
 import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
 import max.iv.labyrinth_game.model.game.GameRoom;
 import max.iv.labyrinth_game.model.game.enums.PlayerStatus;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
 import max.iv.labyrinth_game.service.game.RoomService;
 import max.iv.labyrinth_game.websocket.SessionManager;
 import max.iv.labyrinth_game.websocket.dto.BaseMessage;
@@ -24,12 +26,15 @@ public class RejoinRoomMessageHandler implements WebSocketMessageHandler{
     private final ApplicationEventPublisher eventPublisher;
     private final SessionManager sessionManager;
     private final RoomService roomService;
+    private final RoomCommandExecutor roomCommandExecutor;
 
     @Autowired
-    public RejoinRoomMessageHandler(ApplicationEventPublisher eventPublisher, SessionManager sessionManager, RoomService roomService) {
+    public RejoinRoomMessageHandler(ApplicationEventPublisher eventPublisher, SessionManager sessionManager, RoomService roomService,
+                                    RoomCommandExecutor roomCommandExecutor) {
         this.eventPublisher = eventPublisher;
         this.sessionManager = sessionManager;
         this.roomService = roomService;
+        this.roomCommandExecutor = roomCommandExecutor;
     }
     @Override
     public boolean supports(BaseMessage message) {
@@ -47,6 +52,15 @@ public class RejoinRoomMessageHandler implements WebSocketMessageHandler{
             return;
         }
 
+        try {
+            roomCommandExecutor.execute(roomId, () -> rejoinRoom(session, playerId, roomId));
+        } catch (GameLogicException e) {
+            log.warn("RECONNECT_TO_ROOM for player {} in room {} rejected: {}", playerId, roomId, e.getMessage());
+            sessionManager.sendErrorMessageToSession(session, e.getMessage(), e.getErrorType());
+        }
+    }
+
+    private void rejoinRoom(WebSocketSession session, UUID playerId, String roomId) {
         try {
             GameRoom room = roomService.getRoom(roomId);
 
@@ -0,0 +1,146 @@
+package max.iv.labyrinth_game.websocket.reactive;
+
+import max.iv.labyrinth_game.websocket.dto.GameMessageType;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Исходящая очередь одной сессии и одновременно Publisher кадров для reactive-сессии: кадры уходят
+ * в сокет только по запросу подписчика, то есть со скоростью клиента. Новый кадр состояния заменяет
+ * ещё не отправленный кадр того же типа (он устарел), поэтому в очереди не больше одного кадра
+ * каждого типа состояния и последнее состояние никогда не теряется. Очередь ограничена: если она
+ * полна и заменить нечего, offer возвращает OVERFLOW и решение о клиенте принимает вызывающий.
+ */
+final class OutboundFrameBuffer implements Publisher<String> {
+
+    enum Offer {
+        QUEUED,
+        REPLACED_STATE,
+        OVERFLOW
+    }
+
+    // stateType == null — кадр, который нельзя ни заменить, ни выбросить
+    private record Frame(String payload, GameMessageType stateType) {
+    }
+
+    private final int capacity;
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Subscriber<? super String> subscriber;
+    private volatile boolean completed;
+    private volatile boolean cancelled;
+
+    OutboundFrameBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Outbound buffer capacity must be positive. Received: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    Offer offer(String payload, GameMessageType stateType) {
+        Offer result;
+        synchronized (frames) {
+            if (completed || cancelled) {
+                return Offer.QUEUED; // сессия закрывается — кадр никому не нужен
+            }
+            // Новое состояние встаёт в конец очереди — после кадров, поставленных раньше него
+            if (stateType != null && removeQueuedState(stateType)) {
+                result = Offer.REPLACED_STATE;
+            } else if (frames.size() < capacity) {
+                result = Offer.QUEUED;
+            } else {
+                // Устаревших кадров в очереди не бывает: каждое состояние уже заменило своё предыдущее
+                return Offer.OVERFLOW;
+            }
+            frames.addLast(new Frame(payload, stateType));
+        }
+        drain();
+        return result;
+    }
+
+    private boolean removeQueuedState(GameMessageType stateType) {
+        for (Iterator<Frame> it = frames.iterator(); it.hasNext(); ) {
+            if (it.next().stateType() == stateType) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        synchronized (frames) {
+            return frames.size();
+        }
+    }
+
+    // Оставшиеся кадры дописываются, после чего поток завершается
+    void complete() {
+        completed = true;
+        drain();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super String> s) {
+        if (subscriber != null) {
+            throw new IllegalStateException("Outbound buffer supports a single subscriber");
+        }
+        subscriber = s;
+        s.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    cancel();
+                    s.onError(new IllegalArgumentException("Request must be positive. Received: " + n));
+                    return;
+                }
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                synchronized (frames) {
+                    frames.clear();
+                }
+            }
+        });
+        drain();
+    }
+
+    // Классический цикл с wip: отдаёт кадры одним потоком, сколько бы потоков ни звали drain одновременно
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            Subscriber<? super String> s = subscriber;
+            if (s != null && !cancelled) {
+                while (demand.get() > 0) {
+                    String payload;
+                    synchronized (frames) {
+                        Frame frame = frames.pollFirst();
+                        payload = frame == null ? null : frame.payload();
+                    }
+                    if (payload == null || cancelled) {
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    s.onNext(payload);
+                }
+                if (completed && !cancelled && size() == 0) {
+                    cancelled = true;
+                    s.onComplete();
+                }
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+}
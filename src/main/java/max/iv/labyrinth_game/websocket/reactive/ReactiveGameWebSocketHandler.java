@@ -0,0 +1,101 @@
+package max.iv.labyrinth_game.websocket.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.websocket.GameWebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive-транспорт: вход и выход сессии — потоки WebFlux, а игровая логика та же, что у сервлетного
+ * /game: каждая сессия оборачивается в ReactiveSessionAdapter и передаётся в GameWebSocketHandler.
+ * Входящие кадры обрабатываются по одному (следующий запрашивается после обработки предыдущего),
+ * исходящие уходят со скоростью клиента через ограниченный буфер сессии.
+ */
+@Slf4j
+public class ReactiveGameWebSocketHandler implements WebSocketHandler {
+
+    private final GameWebSocketHandler gameWebSocketHandler;
+    private final int bufferSize;
+
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicLong replacedFrames = new AtomicLong();
+    private final AtomicLong slowSessionsClosed = new AtomicLong();
+
+    public ReactiveGameWebSocketHandler(GameWebSocketHandler gameWebSocketHandler, int bufferSize) {
+        this.gameWebSocketHandler = gameWebSocketHandler;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        ReactiveSessionAdapter adapter = new ReactiveSessionAdapter(session, bufferSize, this);
+        openSessions.incrementAndGet();
+        try {
+            gameWebSocketHandler.afterConnectionEstablished(adapter);
+        } catch (Exception e) {
+            log.error("Error opening reactive session {}: {}", session.getId(), e.getMessage(), e);
+        }
+
+        Mono<Void> inbound = session.receive()
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .doOnNext(message -> dispatch(adapter, message.getPayloadAsText()))
+                .doOnError(e -> transportError(adapter, e))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> adapter.completeOutbound())
+                .then();
+        Mono<Void> outbound = session.send(adapter.outbound());
+
+        return Mono.when(inbound, outbound)
+                .doFinally(signal -> {
+                    openSessions.decrementAndGet();
+                    try {
+                        gameWebSocketHandler.afterConnectionClosed(adapter, CloseStatus.NORMAL);
+                    } catch (Exception e) {
+                        log.error("Error closing reactive session {}: {}", session.getId(), e.getMessage(), e);
+                    }
+                });
+    }
+
+    private void dispatch(ReactiveSessionAdapter adapter, String payload) {
+        try {
+            gameWebSocketHandler.handleMessage(adapter, new TextMessage(payload));
+        } catch (Exception e) {
+            log.error("Error handling message from reactive session {}: {}", adapter.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void transportError(ReactiveSessionAdapter adapter, Throwable error) {
+        try {
+            gameWebSocketHandler.handleTransportError(adapter, error);
+        } catch (Exception e) {
+            log.error("Error handling transport error of reactive session {}: {}", adapter.getId(), e.getMessage(), e);
+        }
+    }
+
+    void frameReplaced() {
+        replacedFrames.incrementAndGet();
+    }
+
+    void slowSessionClosed() {
+        slowSessionsClosed.incrementAndGet();
+    }
+
+    public int getOpenSessions() {
+        return openSessions.get();
+    }
+
+    public long getReplacedFrames() {
+        return replacedFrames.get();
+    }
+
+    public long getSlowSessionsClosed() {
+        return slowSessionsClosed.get();
+    }
+}
@@ -0,0 +1,153 @@
+package max.iv.labyrinth_game.websocket.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import max.iv.labyrinth_game.websocket.dto.GameMessageType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive-сессия WebFlux под видом обычной WebSocketSession: SessionManager, рассыльщики и все
+ * WebSocketMessageHandler работают с ней без изменений. sendMessage не блокирует — кадр ложится
+ * в OutboundFrameBuffer и уходит, когда клиент готов его принять.
+ */
+@Slf4j
+final class ReactiveSessionAdapter implements WebSocketSession {
+
+    private final org.springframework.web.reactive.socket.WebSocketSession delegate;
+    private final OutboundFrameBuffer outbound;
+    private final ReactiveGameWebSocketHandler owner;
+    private volatile boolean open = true;
+    private int textMessageSizeLimit = 64 * 1024;
+    private int binaryMessageSizeLimit = 64 * 1024;
+
+    ReactiveSessionAdapter(org.springframework.web.reactive.socket.WebSocketSession delegate, int bufferSize,
+                           ReactiveGameWebSocketHandler owner) {
+        this.delegate = delegate;
+        this.outbound = new OutboundFrameBuffer(bufferSize);
+        this.owner = owner;
+    }
+
+    Flux<WebSocketMessage> outbound() {
+        return Flux.from(outbound).map(delegate::textMessage);
+    }
+
+    void completeOutbound() {
+        open = false;
+        outbound.complete();
+    }
+
+    @Override
+    public void sendMessage(org.springframework.web.socket.WebSocketMessage<?> message) throws IOException {
+        if (!(message instanceof TextMessage textMessage)) {
+            throw new IOException("Only text frames are supported by the reactive transport");
+        }
+        if (!isOpen()) {
+            return;
+        }
+        String payload = textMessage.getPayload();
+        switch (outbound.offer(payload, GameMessageType.stateFrameType(payload))) {
+            case REPLACED_STATE -> owner.frameReplaced();
+            case OVERFLOW -> {
+                // Очередь забита кадрами, которые нельзя заменить, — клиент не успевает читать
+                log.warn("Reactive session {} exceeded its outbound buffer. Closing slow client.", getId());
+                owner.slowSessionClosed();
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+            default -> { }
+        }
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public URI getUri() {
+        return delegate.getHandshakeInfo().getUri();
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return delegate.getHandshakeInfo().getHeaders();
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return delegate.getAttributes();
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return null; // пользователь сессии — атрибуты userId/userName, как и в сервлетном транспорте
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return delegate.getHandshakeInfo().getRemoteAddress();
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return delegate.getHandshakeInfo().getSubProtocol();
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+        this.textMessageSizeLimit = messageSizeLimit;
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return textMessageSizeLimit;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        this.binaryMessageSizeLimit = messageSizeLimit;
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return binaryMessageSizeLimit;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return List.of();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open && delegate.isOpen();
+    }
+
+    @Override
+    public void close() {
+        close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+        open = false;
+        delegate.close(new org.springframework.web.reactive.socket.CloseStatus(status.getCode(), status.getReason()))
+                .subscribe(null, e -> log.debug("Closing reactive session {} failed: {}", getId(), e.getMessage()));
+    }
+}
@@ -0,0 +1,69 @@
+package max.iv.labyrinth_game.websocket.reactive;
+
+import max.iv.labyrinth_game.websocket.GameWebSocketHandler;
+import max.iv.labyrinth_game.websocket.config.JwtAuthHandshakeInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.upgrade.TomcatRequestUpgradeStrategy;
+import org.springframework.web.server.WebHandler;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Включаемый отдельно reactive-транспорт (game.websocket.reactive.enabled=true). Приложение остаётся
+ * сервлетным: WebFlux-обработчик подключается к тому же Tomcat отдельным сервлетом на своём пути,
+ * рядом с обычным /game. Авторизация та же — JWT из заголовка или параметра token.
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.websocket.reactive.enabled", havingValue = "true")
+public class ReactiveWebSocketConfig {
+
+    @Bean
+    public ReactiveGameWebSocketHandler reactiveGameWebSocketHandler(
+            GameWebSocketHandler gameWebSocketHandler,
+            @Value("${game.websocket.reactive.buffer-size:32}") int bufferSize) {
+        return new ReactiveGameWebSocketHandler(gameWebSocketHandler, bufferSize);
+    }
+
+    @Bean
+    public HandshakeWebSocketService reactiveHandshakeService() {
+        HandshakeWebSocketService service = new HandshakeWebSocketService(new TomcatRequestUpgradeStrategy());
+        // Атрибуты, проставленные при авторизации, переезжают в атрибуты сессии
+        Set<String> sessionAttributes = Set.of(JwtAuthHandshakeInterceptor.USER_ID_ATTRIBUTE_KEY,
+                JwtAuthHandshakeInterceptor.USER_NAME_ATTRIBUTE_KEY);
+        service.setSessionAttributePredicate(sessionAttributes::contains);
+        return service;
+    }
+
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactiveGameWebSocketServlet(
+            ReactiveGameWebSocketHandler handler, HandshakeWebSocketService handshakeService,
+            JwtAuthHandshakeInterceptor jwtAuth,
+            @Value("${game.websocket.reactive.path:/game/rx/*}") String path) {
+        WebHandler webHandler = exchange -> {
+            Map<String, Object> attributes = new HashMap<>();
+            String jwt = jwtAuth.parseJwt(exchange.getRequest().getHeaders(), exchange.getRequest().getURI());
+            if (!jwtAuth.authenticate(jwt, attributes)) {
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            }
+            exchange.getAttributes().putAll(attributes);
+            return handshakeService.handleRequest(exchange, handler);
+        };
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration = new ServletRegistrationBean<>(
+                new ServletHttpHandlerAdapter(WebHttpHandlerBuilder.webHandler(webHandler).build()), path);
+        registration.setName("reactiveGameWebSocket");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
@@ -0,0 +1,57 @@
+package max.iv.labyrinth_game.config.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardTemplateTest {
+
+    @Test
+    void generatedClassicBoardMatchesJsonLayout() {
+        BoardConfigLoader loader = new BoardConfigLoader();
+        loader.setConfigFile(new ClassPathResource("board-layout.json"));
+        loader.loadConfig();
+        BoardTemplate compiled = loader.getBoardTemplate();
+        BoardTemplate generated = BoardTemplate.generate(7, BoardProfile.CLASSIC);
+
+        assertEquals(compiled.getBases(), generated.getBases());
+        assertEquals(compiled.getMarkerCount(), generated.getMarkerCount());
+        assertArrayEquals(compiled.movableTiles(), generated.movableTiles());
+        for (int players = 0; players <= 4; players++) {
+            Board expected = compiled.newBoard(players);
+            Board actual = generated.newBoard(players);
+            for (int cell = 0; cell < 49; cell++) {
+                assertEquals(expected.getTileType(cell), actual.getTileType(cell), "cell " + cell);
+                assertEquals(expected.getTileOrientation(cell), actual.getTileOrientation(cell), "cell " + cell);
+                assertEquals(expected.getOpenSidesMask(cell), actual.getOpenSidesMask(cell), "cell " + cell);
+            }
+            assertArrayEquals(compiled.markerCells(players), generated.markerCells(players));
+        }
+    }
+
+    @Test
+    void tileMixAndMarkersScaleWithBoardSize() {
+        for (int size = BoardTemplate.MIN_BOARD_SIZE; size <= BoardTemplate.MAX_BOARD_SIZE; size += 2) {
+            BoardTemplate template = BoardTemplate.generate(size, BoardProfile.CLASSIC);
+            int stationary = ((size + 1) / 2) * ((size + 1) / 2);
+            TileType[] tiles = template.movableTiles();
+
+            assertEquals(size * size - stationary, template.movableCellCount());
+            assertEquals(template.movableCellCount() + 1, tiles.length);
+            long corners = Arrays.stream(tiles).filter(t -> t == TileType.CORNER).count();
+            assertTrue(Math.abs(corners - tiles.length * 15.0 / 34) <= 1, "size " + size);
+            assertEquals(0, template.getMarkerCount() % BoardProfile.MARKER_GROUP);
+            assertTrue(template.getMarkerCount() <= template.markerCells(4).length);
+        }
+        assertThrows(IllegalArgumentException.class, () -> BoardTemplate.generate(8, BoardProfile.CLASSIC));
+        assertThrows(IllegalArgumentException.class, () -> BoardTemplate.generate(65, BoardProfile.CLASSIC));
+    }
+}
@@ -0,0 +1,67 @@
+package max.iv.labyrinth_game.model.game;
+
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardVersionTest {
+
+    private final BoardShiftService shiftService = new BoardShiftService();
+
+    @Test
+    void everyVersionMaterializesTheBoardItWasPublishedFrom() {
+        Random random = new Random(11);
+        Board board = TestBoards.randomBoardWithMarkers(9, random);
+        BoardVersion version = BoardVersion.of(board);
+        List<BoardVersion> versions = new ArrayList<>(List.of(version));
+        List<Board> copies = new ArrayList<>(List.of(new Board(board)));
+
+        for (int shift = 0; shift < 40; shift++) {
+            int index = 1 + 2 * random.nextInt(board.getSize() / 2);
+            Direction direction = Direction.values()[random.nextInt(4)];
+            shiftService.shiftTiles(board, index, direction);
+            version = version.afterShift(board, index, direction);
+            if (shift % 5 == 0 && board.getMarker(10) != null) {
+                board.setMarker(10, null);
+                version = version.withChanges(board, 10);
+            }
+            versions.add(version);
+            copies.add(new Board(board));
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            Board expected = copies.get(i);
+            Board actual = versions.get(i).toBoard();
+            assertEquals(expected.getZobristHash(), actual.getZobristHash());
+            for (int slot = 0; slot <= expected.getExtraSlot(); slot++) {
+                assertEquals(expected.packSlot(slot), actual.packSlot(slot));
+                assertEquals(expected.getMarker(slot), actual.getMarker(slot));
+            }
+        }
+    }
+
+    @Test
+    void historyCostsAFractionOfFullCopies() {
+        Random random = new Random(3);
+        Board board = TestBoards.randomBoardWithMarkers(7, random);
+        BoardVersion version = BoardVersion.of(board);
+        long storedSlots = version.ownSlotCount();
+        int versions = 64;
+        for (int i = 1; i < versions; i++) {
+            int index = 1 + 2 * random.nextInt(3);
+            Direction direction = Direction.values()[random.nextInt(4)];
+            shiftService.shiftTiles(board, index, direction);
+            version = version.afterShift(board, index, direction);
+            storedSlots += version.ownSlotCount();
+        }
+        long fullCopies = (long) versions * (board.getExtraSlot() + 1);
+        assertTrue(storedSlots * 3 < fullCopies, storedSlots + " slots stored vs " + fullCopies + " for full copies");
+    }
+}
@@ -0,0 +1,51 @@
+package max.iv.labyrinth_game.model.game;
+
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConnectivityIndexTest {
+
+    private final BoardShiftService shiftService = new BoardShiftService();
+
+    @Test
+    void incrementalUpdateMatchesFullRecomputation() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            int size = 5 + 2 * random.nextInt(4);
+            Board board = TestBoards.randomBoard(size, random);
+            ConnectivityIndex incremental = board.getConnectivity();
+            for (int shift = 0; shift < 100; shift++) {
+                int index = 1 + 2 * random.nextInt(size / 2);
+                Direction direction = Direction.values()[random.nextInt(4)];
+                shiftService.shiftBoard(board, index, direction, List.of());
+
+                ConnectivityIndex expected = new ConnectivityIndex(board);
+                int cellCount = size * size;
+                for (int a = 0; a < cellCount; a++) {
+                    assertEquals(expected.getComponentSize(a), incremental.getComponentSize(a));
+                    assertEquals(expected.cellsConnectedTo(a), incremental.cellsConnectedTo(a));
+                }
+            }
+        }
+    }
+
+    @Test
+    void manualTilePlacementResetsIndex() {
+        Board board = new Board(5);
+        for (Cell cell : board.getAllCells()) {
+            cell.setTile(new Tile(TileType.STRAIGHT, 1)); // все тайлы горизонтальные
+        }
+        assertEquals(5, board.getConnectivity().getComponentSize(0));
+
+        board.getCell(0, 0).getTile().setOrientation(0);
+        board.getCell(0, 1).getTile().setOrientation(0);
+        assertEquals(2, board.getConnectivity().getComponentSize(0));
+    }
+}
@@ -0,0 +1,42 @@
+package max.iv.labyrinth_game.model.game;
+
+import max.iv.labyrinth_game.model.game.enums.TileType;
+
+import java.util.Random;
+
+/**
+ * Случайные доски для тестов: случайные тайлы и повороты, часть неподвижных клеток — базы без тайла
+ * со случайными открытыми сторонами, плюс лишний тайл.
+ */
+public final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    public static Board randomBoard(int size, Random random) {
+        return randomBoard(size, random, false);
+    }
+
+    // То же, но примерно на каждой четвёртой клетке и на лишнем тайле лежит маркер
+    public static Board randomBoardWithMarkers(int size, Random random) {
+        return randomBoard(size, random, true);
+    }
+
+    private static Board randomBoard(int size, Random random, boolean withMarkers) {
+        Board board = new Board(size);
+        TileType[] types = TileType.values();
+        int markerId = 0;
+        for (Cell cell : board.getAllCells()) {
+            Marker marker = withMarkers && random.nextInt(4) == 0 ? new Marker(markerId++) : null;
+            if (cell.isStationary() && random.nextInt(6) == 0) {
+                cell.setFixedOpenSidesMask(random.nextInt(16)); // клетка-база без тайла
+                cell.setStationaryMarker(marker);
+            } else {
+                cell.setTile(new Tile(types[random.nextInt(types.length)], random.nextInt(4), marker));
+            }
+        }
+        board.setExtraTile(new Tile(types[random.nextInt(types.length)], random.nextInt(4),
+                withMarkers ? new Marker(markerId) : null));
+        return board;
+    }
+}
@@ -0,0 +1,89 @@
+package max.iv.labyrinth_game.model.game;
+
+import lombok.Getter;
+import max.iv.labyrinth_game.config.game.BoardConfigLoader;
+import max.iv.labyrinth_game.service.game.BoardSetupService;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.GameValidator;
+import max.iv.labyrinth_game.service.game.PathFinder;
+import max.iv.labyrinth_game.service.game.ReplayService;
+import max.iv.labyrinth_game.service.game.RoomService;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Партии для тестов: RoomService и GameService поверх раскладки, собранные как в Spring, и комната,
+ * которую игроки заполняют через обычный вход (addPlayerToRoom) — партия стартует с заданным сидом.
+ */
+public final class TestGames {
+
+    @Getter
+    private final RoomService roomService;
+    @Getter
+    private final GameService gameService;
+
+    public TestGames(ReplayService replayService) {
+        this(loader(), replayService);
+    }
+
+    public TestGames(BoardConfigLoader loader, ReplayService replayService) {
+        GameValidator validator = new GameValidator();
+        this.roomService = new RoomService(event -> { }, validator, loader);
+        this.gameService = new GameService(roomService, new BoardSetupService(loader), validator,
+                new BoardShiftService(), new PathFinder(), replayService);
+    }
+
+    // Запущенная партия на доске 7x7 из board-layout.json, когда остальные сервисы тесту не нужны
+    public static GameRoom startedRoom(long seed, int players) {
+        return new TestGames(new ReplayService(new BoardShiftService(), 8, 4)).startRoom(seed, players, 0);
+    }
+
+    // boardSize 0 — размер из раскладки
+    public GameRoom startRoom(long seed, int players, int boardSize) {
+        return startRoom(seed, ids(players), boardSize);
+    }
+
+    public GameRoom startRoom(long seed, List<UUID> playerIds) {
+        return startRoom(seed, playerIds, 0);
+    }
+
+    public GameRoom startRoom(long seed, List<UUID> playerIds, int boardSize) {
+        GameRoom room = roomService.createRoom(playerIds.size(), "test", boardSize);
+        room.setSeed(seed);
+        for (int seat = 0; seat < playerIds.size(); seat++) {
+            gameService.addPlayerToRoom(room.getRoomId(), player(playerIds.get(seat), seat));
+        }
+        return room;
+    }
+
+    // Комната с игроками, но без доски: для тестов раскладки
+    public static GameRoom waitingRoom(int players) {
+        GameRoom room = new GameRoom(players, "test");
+        List<UUID> playerIds = ids(players);
+        for (int seat = 0; seat < players; seat++) {
+            room.addPlayer(player(playerIds.get(seat), seat));
+        }
+        return room;
+    }
+
+    // Игрок без базы: настоящую базу назначает раскладка при старте партии
+    public static Player player(UUID id, int seat) {
+        return new Player(id, "P" + seat, new Base(0, 0, Set.of()));
+    }
+
+    public static BoardConfigLoader loader() {
+        BoardConfigLoader loader = new BoardConfigLoader();
+        loader.setConfigFile(new ClassPathResource("board-layout.json"));
+        loader.loadConfig();
+        return loader;
+    }
+
+    private static List<UUID> ids(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).toList();
+    }
+}
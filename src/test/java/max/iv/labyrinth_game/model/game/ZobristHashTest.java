@@ -0,0 +1,89 @@
+package max.iv.labyrinth_game.model.game;
+
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ZobristHashTest {
+
+    private final BoardShiftService shiftService = new BoardShiftService();
+
+    @Test
+    void incrementalHashMatchesHashOfRebuiltBoard() {
+        Random random = new Random(5);
+        for (int round = 0; round < 30; round++) {
+            int size = 5 + 2 * random.nextInt(4);
+            Board board = TestBoards.randomBoardWithMarkers(size, random);
+            for (int shift = 0; shift < 50; shift++) {
+                int index = 1 + 2 * random.nextInt(size / 2);
+                shiftService.shiftBoard(board, index, Direction.values()[random.nextInt(4)], List.of());
+                if (shift % 10 == 0) {
+                    board.getCell(1, 1).removeActiveMarker();
+                }
+                assertEquals(rebuild(board).getZobristHash(), board.getZobristHash());
+            }
+        }
+    }
+
+    @Test
+    void shiftAndOppositeShiftRestoreHash() {
+        Board board = TestBoards.randomBoardWithMarkers(7, new Random(8));
+        long before = board.getZobristHash();
+
+        shiftService.shiftTiles(board, 3, Direction.EAST);
+        assertNotEquals(before, board.getZobristHash());
+        shiftService.shiftTiles(board, 3, Direction.WEST);
+        assertEquals(before, board.getZobristHash());
+    }
+
+    @Test
+    void roomHashCoversPlayersTurnAndPhase() {
+        GameRoom room = new GameRoom(2, "zobrist");
+        room.setBoard(TestBoards.randomBoardWithMarkers(7, new Random(3)));
+        room.addPlayer(new Player(UUID.randomUUID(), "A", new Base(0, 0, Set.of())));
+        room.addPlayer(new Player(UUID.randomUUID(), "B", new Base(6, 6, Set.of())));
+        room.getPlayers().forEach(Player::resetToMyBase);
+        room.setCurrentPlayerIndex(0);
+        room.setGamePhase(GamePhase.PLAYER_SHIFT);
+        long initial = room.getStateHash();
+
+        room.getPlayers().get(0).moveTo(1, 0);
+        long moved = room.getStateHash();
+        assertNotEquals(initial, moved);
+        room.setCurrentPlayerIndex(1);
+        assertNotEquals(moved, room.getStateHash());
+        room.setGamePhase(GamePhase.PLAYER_MOVE);
+        room.getPlayers().get(0).moveTo(0, 0);
+        room.setCurrentPlayerIndex(0);
+        assertNotEquals(initial, room.getStateHash());
+        room.setGamePhase(GamePhase.PLAYER_SHIFT);
+        assertEquals(initial, room.getStateHash());
+    }
+
+    // Та же раскладка, собранная с нуля через публичный API
+    private static Board rebuild(Board source) {
+        Board board = new Board(source.getSize());
+        for (Cell cell : source.getAllCells()) {
+            Cell target = board.getCell(cell.getX(), cell.getY());
+            Tile tile = cell.getTile();
+            if (tile != null) {
+                target.setTile(new Tile(tile.getType(), tile.getOrientation(), tile.getMarker()));
+            } else {
+                target.setFixedOpenSidesMask(cell.getFixedOpenSidesMask());
+                target.setStationaryMarker(cell.getStationaryMarker());
+            }
+        }
+        Tile extra = source.getExtraTile();
+        board.setExtraTile(new Tile(extra.getType(), extra.getOrientation(), extra.getMarker()));
+        return board;
+    }
+}
@@ -0,0 +1,43 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.TestBoards;
+import max.iv.labyrinth_game.model.game.Tile;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitboardReachabilityTest {
+
+    private final BitboardReachability bitboard = new BitboardReachability();
+    private final BoardShiftService shiftService = new BoardShiftService();
+
+    @Test
+    void matchesBfsOnBoardsUpTo63() {
+        Random random = new Random(3);
+        for (int size = 5; size <= BitboardReachability.MAX_BOARD_SIZE; size += 2) {
+            Board board = TestBoards.randomBoard(size, random);
+            for (int round = 0; round < 10; round++) {
+                int x = random.nextInt(size), y = random.nextInt(size);
+                assertEquals(ReachabilityBenchmark.legacyBfs(board, x, y), bitboard.reachableFrom(board, x, y));
+                // битборд собирается из текущих масок, поэтому после сдвига и смены тайла ответ свежий
+                shiftService.shiftBoard(board, 1 + 2 * random.nextInt(size / 2), Direction.values()[random.nextInt(4)], List.of());
+                board.getCell(x, y).setTile(new Tile(TileType.CORNER, random.nextInt(4)));
+            }
+        }
+    }
+
+    @Test
+    void outOfBoundsStartIsEmptyAndLargeBoardsAreRejected() {
+        Board board = TestBoards.randomBoard(7, new Random(1));
+        assertTrue(bitboard.reachableFrom(board, -1, 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bitboard.reachableFrom(new Board(65), 0, 0));
+    }
+}
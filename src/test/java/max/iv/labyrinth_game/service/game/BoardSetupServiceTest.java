@@ -0,0 +1,117 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.config.game.BoardConfigLoader;
+import max.iv.labyrinth_game.config.game.FairnessModel;
+import max.iv.labyrinth_game.model.game.Base;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Marker;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.TestGames;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardSetupServiceTest {
+
+    @Test
+    void setupFromTemplateProducesCompleteIndependentBoards() {
+        BoardSetupService setupService = new BoardSetupService(TestGames.loader());
+
+        GameRoom room = TestGames.waitingRoom(3);
+        Board board = setupService.setupBoard(room);
+        Board second = setupService.setupBoard(TestGames.waitingRoom(3));
+        int size = board.getSize();
+
+        Map<TileType, Integer> movableTypes = new EnumMap<>(TileType.class);
+        movableTypes.merge(board.getTileType(board.getExtraSlot()), 1, Integer::sum);
+        for (int cell = 0; cell < size * size; cell++) {
+            if (!board.isStationary(cell)) {
+                assertNotNull(board.getTileType(cell));
+                movableTypes.merge(board.getTileType(cell), 1, Integer::sum);
+            }
+        }
+        assertEquals(Map.of(TileType.STRAIGHT, 13, TileType.CORNER, 15, TileType.T_SHAPED, 6), movableTypes);
+
+        for (Player player : room.getPlayers()) {
+            Base base = player.getBase();
+            int cell = base.y() * size + base.x();
+            assertTrue(player.isAtBase());
+            assertEquals(Direction.toMask(base.exits()), board.getOpenSidesMask(cell));
+            assertNull(board.getMarker(cell));
+            assertEquals(4, player.getTargetMarkerIds().size());
+        }
+
+        Set<Integer> placed = new HashSet<>();
+        for (int slot = 0; slot < size * size; slot++) {
+            Marker marker = board.getMarker(slot);
+            if (marker != null) {
+                assertTrue(placed.add(marker.getId()));
+            }
+        }
+        assertEquals(12, placed.size());
+
+        // Изменения доски партии не протекают в прототип шаблона
+        for (int cell = 0; cell < size * size; cell++) {
+            if (board.isStationary(cell)) {
+                board.setTileShape(cell, null, 0);
+            }
+        }
+        Board third = setupService.setupBoard(TestGames.waitingRoom(3));
+        for (int cell = 0; cell < size * size; cell++) {
+            if (board.isStationary(cell)) {
+                assertEquals(second.getTileType(cell), third.getTileType(cell));
+                assertEquals(second.getOpenSidesMask(cell), third.getOpenSidesMask(cell));
+            }
+        }
+    }
+
+    @Test
+    void fairnessModelFiltersSkewedMarkerLayouts() {
+        BoardConfigLoader loader = new BoardConfigLoader();
+        loader.setConfigFile(new ClassPathResource("board-layout.json"));
+        loader.setFairnessModelFile(new ClassPathResource("fairness-model.json"));
+        loader.loadConfig();
+        BoardSetupService setupService = new BoardSetupService(loader);
+        double threshold = loader.getFairnessEntry(7, 4).maxMarkerDistanceSpread();
+
+        for (int i = 0; i < 200; i++) {
+            GameRoom room = TestGames.waitingRoom(4);
+            Board board = setupService.setupBoard(room);
+            assertTrue(FairnessModel.markerDistanceSpread(board, room.getPlayers()) <= threshold);
+        }
+    }
+
+    @Test
+    void layoutAboveImbalanceThresholdIsRejected() {
+        BoardConfigLoader loader = new BoardConfigLoader();
+        loader.setConfigFile(new ClassPathResource("board-layout.json"));
+        loader.setFairnessModelFile(new ClassPathResource("fairness-model.json"));
+        loader.setMaxLayoutImbalance(0.001);
+
+        assertThrows(IllegalArgumentException.class, loader::loadConfig);
+    }
+
+    @Test
+    void boardSizeMissingFromFairnessModelIsRejected() {
+        BoardConfigLoader loader = new BoardConfigLoader();
+        loader.setConfigFile(new ClassPathResource("board-layout.json"));
+        loader.setFairnessModelFile(new ClassPathResource("fairness-model.json"));
+        loader.loadConfig();
+
+        loader.validateBoardSize(9);
+        assertThrows(IllegalArgumentException.class, () -> loader.validateBoardSize(13));
+    }
+}
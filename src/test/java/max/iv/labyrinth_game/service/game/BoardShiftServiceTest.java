@@ -0,0 +1,127 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Marker;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.TestBoards;
+import max.iv.labyrinth_game.model.game.Tile;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BoardShiftServiceTest {
+
+    private final BoardShiftService shiftService = new BoardShiftService();
+
+    @Test
+    void shiftMovesTilesMarkersAndPlayersAlongTheLine() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            int size = 5 + 2 * random.nextInt(3);
+            Board board = TestBoards.randomBoard(size, random);
+            for (int slot = 0; slot <= board.getExtraSlot(); slot++) {
+                if (board.hasTile(slot) && random.nextInt(3) == 0) {
+                    board.setMarker(slot, new Marker(slot));
+                }
+            }
+            int index = 1 + 2 * random.nextInt(size / 2);
+            Direction direction = Direction.values()[random.nextInt(4)];
+            Player player = new Player(UUID.randomUUID(), "p", null);
+            player.moveTo(random.nextInt(size), random.nextInt(size));
+
+            int[] expectedSlots = expectedSourceSlots(board, index, direction);
+            int[] masks = new int[expectedSlots.length];
+            Marker[] markers = new Marker[expectedSlots.length];
+            for (int slot = 0; slot < expectedSlots.length; slot++) {
+                masks[slot] = board.getOpenSidesMask(slot);
+                markers[slot] = board.getMarker(slot);
+            }
+            int playerSlot = player.getCurrentY() * size + player.getCurrentX();
+            int expectedPlayerSlot = playerSlot;
+            for (int slot = 0; slot < size * size; slot++) {
+                if (expectedSlots[slot] == playerSlot) expectedPlayerSlot = slot;
+            }
+            if (expectedSlots[board.getExtraSlot()] == playerSlot) {
+                // игрок на выпадающем тайле переезжает на вставленный
+                expectedPlayerSlot = expectedInsertSlot(size, index, direction);
+            }
+
+            shiftService.shiftBoard(board, index, direction, List.of(player));
+
+            for (int slot = 0; slot < expectedSlots.length; slot++) {
+                assertEquals(masks[expectedSlots[slot]], board.getOpenSidesMask(slot));
+                assertSame(markers[expectedSlots[slot]], board.getMarker(slot));
+                if (board.getMarker(slot) != null) {
+                    assertEquals(slot, board.getMarkerSlot(board.getMarker(slot).getId()));
+                }
+            }
+            assertEquals(expectedPlayerSlot, player.getCurrentY() * size + player.getCurrentX());
+        }
+    }
+
+    // Для каждого слота после сдвига — из какого слота пришло его содержимое
+    private static int[] expectedSourceSlots(Board board, int index, Direction direction) {
+        int size = board.getSize();
+        int extra = board.getExtraSlot();
+        int[] source = new int[extra + 1];
+        for (int slot = 0; slot <= extra; slot++) source[slot] = slot;
+        for (int i = 0; i < size; i++) {
+            int slot = line(size, index, direction, i);
+            source[slot] = i == 0 ? extra : line(size, index, direction, i - 1);
+        }
+        source[extra] = line(size, index, direction, size - 1);
+        return source;
+    }
+
+    private static int expectedInsertSlot(int size, int index, Direction direction) {
+        return line(size, index, direction, 0);
+    }
+
+    // i-я клетка линии, считая от конца, куда вставляется запасной тайл
+    private static int line(int size, int index, Direction direction, int i) {
+        return switch (direction) {
+            case EAST -> index * size + i;
+            case WEST -> index * size + (size - 1 - i);
+            case SOUTH -> i * size + index;
+            case NORTH -> (size - 1 - i) * size + index;
+        };
+    }
+
+    @Test
+    void undoShiftRestoresBoardExtraTileAndPlayers() {
+        Random random = new Random(9);
+        for (int round = 0; round < 100; round++) {
+            int size = 5 + 2 * random.nextInt(3);
+            Board board = TestBoards.randomBoard(size, random);
+            board.setExtraTile(new Tile(TileType.T_SHAPED, random.nextInt(4), new Marker(99)));
+            List<Player> players = List.of(new Player(UUID.randomUUID(), "a", null), new Player(UUID.randomUUID(), "b", null));
+            int[] positions = new int[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                players.get(i).moveTo(random.nextInt(size), random.nextInt(size));
+                positions[i] = players.get(i).getCurrentY() * size + players.get(i).getCurrentX();
+            }
+            Board before = new Board(board);
+
+            BoardShiftService.ShiftUndo undo = shiftService.applyShift(board, 1 + 2 * random.nextInt(size / 2),
+                    Direction.values()[random.nextInt(4)], players);
+            shiftService.undoShift(board, undo);
+
+            for (int slot = 0; slot <= board.getExtraSlot(); slot++) {
+                assertEquals(before.getTileType(slot), board.getTileType(slot));
+                assertEquals(before.getTileOrientation(slot), board.getTileOrientation(slot));
+                assertEquals(before.getOpenSidesMask(slot), board.getOpenSidesMask(slot));
+                assertSame(before.getMarker(slot), board.getMarker(slot));
+            }
+            for (int i = 0; i < players.size(); i++) {
+                assertEquals(positions[i], players.get(i).getCurrentY() * size + players.get(i).getCurrentX());
+            }
+        }
+    }
+}
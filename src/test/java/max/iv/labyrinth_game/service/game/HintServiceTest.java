@@ -0,0 +1,63 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.MoveHint;
+import max.iv.labyrinth_game.model.game.TestGames;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HintServiceTest {
+
+    private final BoardShiftService boardShiftService = new BoardShiftService();
+    private final GameValidator validator = new GameValidator();
+    private final RoomCommandExecutor roomCommandExecutor = new RoomCommandExecutor(1, 16, false);
+    private final HintService hintService = new HintService(validator, boardShiftService, roomCommandExecutor, 1, 1000);
+
+    @AfterEach
+    void tearDown() {
+        hintService.shutdown();
+        roomCommandExecutor.shutdown();
+    }
+
+    @Test
+    void wallFieldCountsWallsAndManhattanFieldIgnoresThem() {
+        // Доска 3x3 из вертикальных прямых: колонки связаны, между колонками везде стена
+        Board board = new Board(3);
+        for (int slot = 0; slot <= board.getExtraSlot(); slot++) {
+            board.setTileShape(slot, TileType.STRAIGHT, 0);
+        }
+        int[] goals = {0};
+        int[] walls = HintService.wallField(board, goals);
+        int[] manhattan = HintService.manhattanField(3, goals);
+
+        assertEquals(0, walls[0]);
+        assertEquals(0, walls[3], "vertical straights connect the column");
+        assertEquals(0, walls[6]);
+        assertEquals(1, walls[1], "one wall between neighbouring columns");
+        assertEquals(2, walls[8]);
+        assertEquals(4, manhattan[8]);
+        assertEquals(1, manhattan[3]);
+    }
+
+    @Test
+    void repeatedRequestInSameStateReusesComputedHint() throws Exception {
+        GameRoom room = TestGames.startedRoom(5, 2);
+        UUID current = room.getCurrentPlayer().getId();
+
+        MoveHint hint = hintService.requestHint(room, current).get();
+        assertNotNull(hint.shiftIndex());
+        assertTrue(hint.complete());
+        var cached = room.getHint();
+        assertSame(hint, hintService.requestHint(room, current).get());
+        assertSame(cached, room.getHint());
+    }
+}
@@ -0,0 +1,111 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Cell;
+import max.iv.labyrinth_game.model.game.TestBoards;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathFinderTest {
+
+    private final PathFinder pathFinder = new PathFinder();
+
+    @Test
+    void matchesReferenceBfsOnRandomBoards() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int size = 5 + 2 * random.nextInt(4);
+            Board board = TestBoards.randomBoard(size, random);
+            for (int query = 0; query < 30; query++) {
+                int fromX = random.nextInt(size), fromY = random.nextInt(size);
+                int toX = random.nextInt(size), toY = random.nextInt(size);
+                int expected = referenceDistance(board, fromX, fromY, toX, toY);
+                assertEquals(expected, pathFinder.distanceTo(board, fromX, fromY, toX, toY));
+                assertEquals(expected >= 0, pathFinder.isReachable(board, fromX, fromY, toX, toY));
+            }
+        }
+    }
+
+    @Test
+    void shortestPathIsConnectedAndMinimal() {
+        Random random = new Random(7);
+        int[] path = new int[11 * 11];
+        for (int round = 0; round < 200; round++) {
+            int size = 5 + 2 * random.nextInt(4);
+            Board board = TestBoards.randomBoard(size, random);
+            int fromX = random.nextInt(size), fromY = random.nextInt(size);
+            int toX = random.nextInt(size), toY = random.nextInt(size);
+            int expected = referenceDistance(board, fromX, fromY, toX, toY);
+
+            int length = pathFinder.shortestPath(board, fromX, fromY, toX, toY, path);
+            if (expected < 0) {
+                assertEquals(-1, length);
+                continue;
+            }
+            assertEquals(expected + 1, length);
+            assertEquals(fromY * size + fromX, path[0]);
+            assertEquals(toY * size + toX, path[length - 1]);
+            for (int i = 1; i < length; i++) {
+                assertTrue(areLinked(board, path[i - 1], path[i]), "Path step " + i + " crosses a wall");
+            }
+        }
+    }
+
+    @Test
+    void rejectsCoordinatesOutsideTheBoard() {
+        Board board = TestBoards.randomBoard(7, new Random(1));
+        assertFalse(pathFinder.isReachable(board, -1, 0, 0, 0));
+        assertFalse(pathFinder.isReachable(board, 0, 0, 7, 0));
+        assertTrue(pathFinder.isReachable(board, 3, 3, 3, 3));
+    }
+
+    // Прежний BFS из GameService (с исправленной проверкой границ), дополненный подсчётом шагов
+    private static int referenceDistance(Board board, int startX, int startY, int targetX, int targetY) {
+        int size = board.getSize();
+        int[] distance = new int[size * size];
+        Arrays.fill(distance, -1);
+        Queue<int[]> queue = new ArrayDeque<>();
+        queue.offer(new int[]{startX, startY});
+        distance[startY * size + startX] = 0;
+        while (!queue.isEmpty()) {
+            int[] current = queue.poll();
+            Cell currentCell = board.getCell(current[0], current[1]);
+            if (current[0] == targetX && current[1] == targetY) {
+                return distance[current[1] * size + current[0]];
+            }
+            for (Direction direction : Direction.values()) {
+                if (!currentCell.connectsTo(direction)) continue;
+                int nextX = current[0] + direction.getDx();
+                int nextY = current[1] + direction.getDy();
+                if (!board.isValidCoordinate(nextX, nextY)) continue;
+                Cell neighborCell = board.getCell(nextX, nextY);
+                if (neighborCell.connectsTo(direction.opposite()) && distance[nextY * size + nextX] < 0) {
+                    distance[nextY * size + nextX] = distance[current[1] * size + current[0]] + 1;
+                    queue.offer(new int[]{nextX, nextY});
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean areLinked(Board board, int from, int to) {
+        int size = board.getSize();
+        Cell a = board.getCell(from % size, from / size);
+        Cell b = board.getCell(to % size, to / size);
+        for (Direction direction : Direction.values()) {
+            if (a.getX() + direction.getDx() == b.getX() && a.getY() + direction.getDy() == b.getY()) {
+                return a.connectsTo(direction) && b.connectsTo(direction.opposite());
+            }
+        }
+        return false;
+    }
+}
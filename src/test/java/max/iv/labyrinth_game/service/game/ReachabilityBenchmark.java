@@ -0,0 +1,127 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Cell;
+import max.iv.labyrinth_game.model.game.TestBoards;
+import max.iv.labyrinth_game.model.game.Tile;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Ручной бенчмарк: PathFinder.reachableFrom (индекс компонент доски) против битбордов.
+ * shifted — перед запросом доска сдвигается, в цену PathFinder входит пересчёт индекса;
+ * warm — повторные запросы к одной раскладке, индекс уже готов. Битборд всегда собирается из масок заново.
+ * Эталон для тестов — legacyBfs, прежний findPathBfs из GameService.
+ * Запуск: mvn test-compile, затем java -cp target/classes:target/test-classes:&lt;зависимости&gt;
+ * max.iv.labyrinth_game.service.game.ReachabilityBenchmark
+ */
+public class ReachabilityBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int BOARDS = 64;
+
+    public static void main(String[] args) {
+        PathFinder pathFinder = new PathFinder();
+        BitboardReachability bitboard = new BitboardReachability();
+        // random — случайные тайлы, мелкие компоненты; open — только T-тайлы, почти всё поле связно
+        for (String profile : new String[]{"random", "open"}) {
+            for (int size : new int[]{7, 15, 31, 63}) {
+                // у каждого движка свои одинаковые доски: индекс компонент строится только на досках PathFinder
+                Board[] indexed = boards(profile, size, new Random(size));
+                Board[] plain = boards(profile, size, new Random(size));
+                run(profile, size, true, indexed, plain, pathFinder, bitboard);
+                run(profile, size, false, indexed, plain, pathFinder, bitboard);
+            }
+        }
+    }
+
+    private static Board[] boards(String profile, int size, Random random) {
+        Board[] boards = new Board[BOARDS];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = profile.equals("random") ? TestBoards.randomBoard(size, random) : openBoard(size, random);
+        }
+        return boards;
+    }
+
+    private static void run(String profile, int size, boolean shifted, Board[] indexed, Board[] plain,
+                            PathFinder pathFinder, BitboardReachability bitboard) {
+        BoardShiftService shiftService = new BoardShiftService();
+        int iterations = Math.max(200, 400_000 / (size * size));
+        long pathFinderNanos = 0;
+        long bitboardNanos = 0;
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                Board board = indexed[i & (BOARDS - 1)];
+                if (shifted) {
+                    shift(shiftService, board, i);
+                }
+                sink += pathFinder.reachableFrom(board, i % size, (i * 7) % size).cardinality();
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                Board board = plain[i & (BOARDS - 1)];
+                if (shifted) {
+                    shift(shiftService, board, i);
+                }
+                sink += bitboard.reachableFrom(board, i % size, (i * 7) % size).cardinality();
+            }
+            long end = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                pathFinderNanos += middle - start;
+                bitboardNanos += end - middle;
+            }
+        }
+        long calls = (long) iterations * MEASURED_ROUNDS;
+        System.out.printf("%-6s %2dx%-2d %-7s  pathFinder %8.0f ns/op  bitboard %8.0f ns/op  (%.2fx)  [%d]%n",
+                profile, size, size, shifted ? "shifted" : "warm", (double) pathFinderNanos / calls,
+                (double) bitboardNanos / calls, (double) pathFinderNanos / bitboardNanos, sink);
+    }
+
+    private static void shift(BoardShiftService shiftService, Board board, int i) {
+        int size = board.getSize();
+        shiftService.shiftBoard(board, 1 + 2 * ((i >>> 6) % (size / 2)), Direction.values()[(i >>> 3) & 3], List.of());
+    }
+
+    private static Board openBoard(int size, Random random) {
+        Board board = new Board(size);
+        for (Cell cell : board.getAllCells()) {
+            cell.setTile(new Tile(TileType.T_SHAPED, random.nextInt(4)));
+        }
+        board.setExtraTile(new Tile(TileType.T_SHAPED, random.nextInt(4)));
+        return board;
+    }
+    // Прежний findPathBfs из GameService без цели — заливка всей компоненты
+    static BitSet legacyBfs(Board board, int startX, int startY) {
+        int size = board.getSize();
+        BitSet visited = new BitSet(size * size);
+        Queue<int[]> queue = new LinkedList<>();
+        queue.offer(new int[]{startX, startY});
+        visited.set(startY * size + startX);
+        while (!queue.isEmpty()) {
+            int[] current = queue.poll();
+            Cell currentCell = board.getCell(current[0], current[1]);
+            for (Direction direction : Direction.values()) {
+                if (currentCell.connectsTo(direction)) {
+                    int nextX = current[0] + direction.getDx();
+                    int nextY = current[1] + direction.getDy();
+                    if (board.isValidCoordinate(nextX, nextY)
+                            && board.getCell(nextX, nextY).connectsTo(direction.opposite())
+                            && !visited.get(nextY * size + nextX)) {
+                        visited.set(nextY * size + nextX);
+                        queue.offer(new int[]{nextX, nextY});
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+}
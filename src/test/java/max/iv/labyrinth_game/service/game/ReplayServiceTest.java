@@ -0,0 +1,57 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.GameRecording;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.TestGames;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.service.game.actions.MoveActionContext;
+import max.iv.labyrinth_game.service.game.actions.ShiftActionContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplayServiceTest {
+
+    private final BoardShiftService boardShiftService = new BoardShiftService();
+    private final ReplayService replayService = new ReplayService(boardShiftService, 4, 10);
+    private final TestGames games = new TestGames(replayService);
+    private final GameService gameService = games.getGameService();
+
+    @Test
+    void sameSeedReproducesStartingPosition() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        GameRoom first = games.startRoom(42, ids);
+        GameRoom second = games.startRoom(42, ids);
+
+        assertEquals(first.getStateHash(), second.getStateHash());
+        for (int seat = 0; seat < ids.size(); seat++) {
+            assertEquals(first.getPlayers().get(seat).getTargetMarkerIds(), second.getPlayers().get(seat).getTargetMarkerIds());
+        }
+    }
+
+    @Test
+    void recordsFiveBytesPerTurnAndSeeksToAnyTurn() {
+        GameRoom room = games.startRoom(7, 2, 0);
+        List<Long> hashes = new ArrayList<>(List.of(room.getStateHash()));
+        Direction[] directions = Direction.values();
+        for (int turn = 0; turn < 10; turn++) {
+            Player player = room.getCurrentPlayer();
+            gameService.performShiftAction(new ShiftActionContext(room, player.getId(), 1 + 2 * (turn % 3), directions[turn % 4]));
+            gameService.performMoveAction(new MoveActionContext(room, player.getId(), player.getCurrentX(), player.getCurrentY()));
+            hashes.add(room.getStateHash());
+        }
+
+        GameRecording recording = replayService.findRecording(room.getRoomId()).orElseThrow();
+        assertEquals(10, recording.getTurnCount());
+        assertEquals(50, recording.getActionBytes());
+        assertEquals(3, recording.getSnapshotCount());
+        for (int turn = 0; turn <= 10; turn++) {
+            assertEquals(hashes.get(turn), replayService.replayAt(recording, turn).getStateHash());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.exceptions.ErrorType;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomCommandExecutorTest {
+
+    private final RoomCommandExecutor executor = new RoomCommandExecutor(4, 1000, false);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void commandsOfOneRoomRunOneAtATimeInOrder() throws Exception {
+        int[] counter = new int[1]; // намеренно без синхронизации
+        List<Integer> order = new ArrayList<>();
+        AtomicInteger concurrent = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int command = i;
+            results.add(executor.submit("room", () -> {
+                assertEquals(1, concurrent.incrementAndGet());
+                order.add(command);
+                counter[0]++;
+                concurrent.decrementAndGet();
+                return command;
+            }));
+            executor.execute("other-" + (i % 7), () -> { });
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(500, counter[0]);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, order.get(i));
+            assertEquals(i, results.get(i).get());
+        }
+    }
+
+    @Test
+    void fullMailboxRejectsWithRoomBusy() throws Exception {
+        RoomCommandExecutor small = new RoomCommandExecutor(1, 2, false);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            small.execute("room", () -> awaitQuietly(release));
+            small.execute("room", () -> { });
+            GameLogicException e = assertThrows(GameLogicException.class, () -> small.execute("room", () -> { }));
+            assertEquals(ErrorType.ROOM_BUSY, e.getErrorType());
+            assertEquals(2, small.getMailboxDepth("room"));
+            small.execute("another-room", () -> { }); // переполнен ящик одной комнаты, а не пул
+            assertEquals(1, small.getStats().rejectedCommands());
+
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (small.getMailboxDepth("room") > 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertTrue(small.submit("room", () -> true).get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            small.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package max.iv.labyrinth_game.service.game;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.TestBoards;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TurnEnumeratorTest {
+
+    private final BoardShiftService shiftService = new BoardShiftService();
+    private final TurnEnumerator turnEnumerator = new TurnEnumerator(shiftService);
+
+    @Test
+    void enumeratesEveryShiftWithItsReachableTargetsWithoutTouchingTheBoard() {
+        Random random = new Random(5);
+        for (int round = 0; round < 30; round++) {
+            int size = 5 + 2 * random.nextInt(3);
+            Board board = TestBoards.randomBoard(size, random);
+            int playerX = random.nextInt(size), playerY = random.nextInt(size);
+            int[] masksBefore = masks(board);
+
+            List<TurnEnumerator.Turn> expected = new ArrayList<>();
+            for (int index = 1; index < size; index += 2) {
+                for (Direction direction : Direction.values()) {
+                    Board copy = new Board(board);
+                    Player player = new Player(UUID.randomUUID(), "p", null);
+                    player.moveTo(playerX, playerY);
+                    shiftService.shiftBoard(copy, index, direction, List.of(player));
+                    BitSet reachable = ReachabilityBenchmark.legacyBfs(copy, player.getCurrentX(), player.getCurrentY());
+                    for (int cell = reachable.nextSetBit(0); cell >= 0; cell = reachable.nextSetBit(cell + 1)) {
+                        expected.add(new TurnEnumerator.Turn(index, direction, cell % size, cell / size));
+                    }
+                }
+            }
+
+            assertEquals(expected, turnEnumerator.turns(board, playerX, playerY).collect(Collectors.toList()));
+            assertEquals(masksBefore.length, masks(board).length);
+            for (int slot = 0; slot < masksBefore.length; slot++) {
+                assertEquals(masksBefore[slot], board.getOpenSidesMask(slot));
+            }
+        }
+    }
+
+    private static int[] masks(Board board) {
+        int[] masks = new int[board.getExtraSlot() + 1];
+        for (int slot = 0; slot < masks.length; slot++) {
+            masks[slot] = board.getOpenSidesMask(slot);
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,74 @@
+package max.iv.labyrinth_game.service.game.bot;
+
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.Cell;
+import max.iv.labyrinth_game.model.game.Marker;
+import max.iv.labyrinth_game.model.game.TestBoards;
+import max.iv.labyrinth_game.model.game.Tile;
+import max.iv.labyrinth_game.model.game.enums.TileType;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.TurnEnumerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BotSearchTest {
+
+    private final BoardShiftService shiftService = new BoardShiftService();
+    private final BotSearch botSearch = new BotSearch(shiftService);
+    private final TurnEnumerator turnEnumerator = new TurnEnumerator(shiftService);
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void picksLegalTurnAndCollectsMarkerWheneverPossible() {
+        Random random = new Random(17);
+        for (int round = 0; round < 30; round++) {
+            Board board = TestBoards.randomBoard(7, random);
+            int markerCell = random.nextInt(49);
+            board.setMarker(markerCell, new Marker(3));
+            int pawnCell = random.nextInt(49);
+
+            BotSearch.Position position = new BotSearch.Position(board, pawnCell, Set.of(3), 0);
+            BotSearch.Choice choice = botSearch.search(position, pool, System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+
+            List<TurnEnumerator.Turn> legal = turnEnumerator.turns(board, pawnCell % 7, pawnCell / 7).toList();
+            assertTrue(legal.contains(choice.turn()));
+            assertEquals(TurnEnumerator.shiftOptionCount(7), choice.evaluatedOptions());
+            boolean canCollect = legal.stream().anyMatch(turn -> collects(board, turn));
+            assertEquals(canCollect, collects(board, choice.turn()));
+        }
+    }
+
+    @Test
+    void expiredDeadlineStillReturnsLegalTurn() {
+        Board board = new Board(7);
+        for (Cell cell : board.getAllCells()) {
+            cell.setTile(new Tile(TileType.CORNER, 1));
+        }
+        board.setExtraTile(new Tile(TileType.STRAIGHT, 0));
+        BotSearch.Choice choice = botSearch.search(new BotSearch.Position(board, 10, Set.of(), 0), pool, System.nanoTime());
+
+        assertEquals(0, choice.evaluatedOptions());
+        assertTrue(turnEnumerator.turns(board, 3, 1).toList().contains(choice.turn()));
+    }
+
+    private boolean collects(Board board, TurnEnumerator.Turn turn) {
+        Board copy = new Board(board);
+        shiftService.shiftTiles(copy, turn.shiftIndex(), turn.direction());
+        Marker marker = copy.getMarker(turn.targetY() * 7 + turn.targetX());
+        return marker != null && marker.getId() == 3;
+    }
+}
@@ -0,0 +1,67 @@
+package max.iv.labyrinth_game.service.game.bot;
+
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.TestGames;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
+import max.iv.labyrinth_game.service.game.RoomService;
+import max.iv.labyrinth_game.service.game.actions.GameActionDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+class BotServiceTest {
+
+    private final RoomCommandExecutor roomCommandExecutor = new RoomCommandExecutor(1, 16, false);
+    private BotService botService;
+
+    @AfterEach
+    void tearDown() {
+        botService.shutdown();
+        roomCommandExecutor.shutdown();
+    }
+
+    @Test
+    void tickReadsRoomStateOnlyInsideTheMailbox() throws Exception {
+        GameRoom room = spy(new GameRoom(3, "waiting"));
+        room.addPlayer(TestGames.player(UUID.randomUUID(), 0));
+        Set<String> readingThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            readingThreads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(room).getGamePhase();
+
+        RoomService roomService = mock(RoomService.class);
+        when(roomService.getAllRooms()).thenReturn(List.of(room));
+        GameService gameService = mock(GameService.class);
+        when(gameService.addPlayerToRoom(anyString(), any(Player.class))).thenAnswer(invocation -> {
+            room.addPlayer(invocation.getArgument(1));
+            return room;
+        });
+        botService = new BotService(roomService, gameService, roomCommandExecutor, mock(GameActionDispatcher.class),
+                new BoardShiftService(), event -> { }, true, 0, 20_000, 50, 1);
+
+        botService.tick();
+        roomCommandExecutor.submit(room.getRoomId(), () -> null).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, room.getPlayers().size());
+        assertTrue(room.getPlayers().get(2).isBot());
+        assertTrue(readingThreads.stream().allMatch(name -> name.startsWith("room-mailbox-")), readingThreads.toString());
+    }
+}
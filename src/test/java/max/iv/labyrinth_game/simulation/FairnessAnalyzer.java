@@ -0,0 +1,281 @@
+package max.iv.labyrinth_game.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import max.iv.labyrinth_game.config.game.BoardConfigLoader;
+import max.iv.labyrinth_game.config.game.FairnessModel;
+import max.iv.labyrinth_game.model.game.Base;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.ConnectivityIndex;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.service.game.BoardSetupService;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.TurnEnumerator;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Офлайн-анализ честности раскладок: генерирует много досок настоящим BoardSetupService и в ForkJoinPool
+ * считает по каждой базе расстояние до своих маркеров, площадь области базы, лучшую площадь после
+ * первого сдвига и шанс достать свой маркер первым ходом. Печатает отчёт по базам и пишет
+ * fairness-model.json: порог разброса расстояний до маркеров (квантиль acceptQuantile) для приёмки
+ * досок на старте и перекос самой раскладки для отказа от неё.
+ * Запуск: mvn test-compile, затем java -cp target/classes:target/test-classes:&lt;зависимости&gt;
+ * max.iv.labyrinth_game.simulation.FairnessAnalyzer [boards] [sizes через запятую] [acceptQuantile] [output]
+ */
+public class FairnessAnalyzer {
+
+    private static final int LEAF_BOARDS = 32;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    static final String[] METRICS = {"markerDistance", "baseArea", "bestShiftArea", "firstTurnMarker"};
+    private static final int MARKER_DISTANCE = 0;
+    private static final int BASE_AREA = 1;
+    private static final int BEST_SHIFT_AREA = 2;
+    private static final int FIRST_TURN_MARKER = 3;
+
+    private final BoardSetupService setupService;
+    private final BoardShiftService shiftService = new BoardShiftService();
+
+    // Загрузчик без модели честности: анализируются нефильтрованные раскладки
+    public FairnessAnalyzer() {
+        BoardConfigLoader loader = new BoardConfigLoader();
+        loader.setConfigFile(new ClassPathResource("board-layout.json"));
+        loader.loadConfig();
+        this.setupService = new BoardSetupService(loader);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int[] sizes = args.length > 1 ? Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{7};
+        double acceptQuantile = args.length > 2 ? Double.parseDouble(args[2]) : 0.9;
+        File output = new File(args.length > 3 ? args[3] : "target/fairness-model.json");
+
+        FairnessAnalyzer analyzer = new FairnessAnalyzer();
+        List<FairnessModel.Entry> entries = new ArrayList<>();
+        for (int size : sizes) {
+            for (int players = 2; players <= 4; players++) {
+                Report report = analyzer.analyze(size, players, boards, ForkJoinPool.commonPool());
+                report.print(System.out);
+                entries.add(report.toModelEntry(acceptQuantile));
+            }
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output, new FairnessModel(entries));
+        System.out.println("Model written to " + output.getAbsolutePath());
+    }
+
+    public Report analyze(int boardSize, int players, int boards, ForkJoinPool pool) {
+        Stats stats = pool.invoke(new AnalyzeTask(boardSize, players, 0, boards));
+        return new Report(boardSize, players, stats);
+    }
+
+    /**
+     * Итог по одной доске и числу игроков: средние метрик по местам, разброс расстояний до маркеров по доскам.
+     */
+    public record Report(int boardSize, int players, Stats stats) {
+
+        public double seatMean(int seat, int metric) {
+            return stats.sums[seat][metric] / stats.boards;
+        }
+
+        public double seatStdDev(int seat, int metric) {
+            double mean = seatMean(seat, metric);
+            return Math.sqrt(Math.max(0, stats.squares[seat][metric] / stats.boards - mean * mean));
+        }
+
+        // Наибольший по метрикам относительный разрыв между лучшей и худшей базой
+        public double layoutImbalance() {
+            double imbalance = 0;
+            for (int metric = 0; metric < METRICS.length; metric++) {
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                double sum = 0;
+                for (int seat = 0; seat < players; seat++) {
+                    double mean = seatMean(seat, metric);
+                    min = Math.min(min, mean);
+                    max = Math.max(max, mean);
+                    sum += mean;
+                }
+                double overall = sum / players;
+                if (overall > 0) {
+                    imbalance = Math.max(imbalance, (max - min) / overall);
+                }
+            }
+            return imbalance;
+        }
+
+        public double spreadQuantile(double quantile) {
+            double[] sorted = Arrays.copyOf(stats.spreads, stats.boards);
+            Arrays.sort(sorted);
+            return sorted[Math.min(sorted.length - 1, (int) Math.floor(quantile * sorted.length))];
+        }
+
+        public FairnessModel.Entry toModelEntry(double acceptQuantile) {
+            return new FairnessModel.Entry(boardSize, players, round(spreadQuantile(acceptQuantile)), round(layoutImbalance()));
+        }
+
+        void print(PrintStream out) {
+            out.printf("%dx%d, %d players, %d boards%n", boardSize, boardSize, players, stats.boards);
+            out.printf("  seat  base     %s%n", String.join("  ", Arrays.stream(METRICS).map(m -> String.format("%-22s", m)).toList()));
+            for (int seat = 0; seat < players; seat++) {
+                Base base = stats.bases[seat];
+                StringBuilder line = new StringBuilder(String.format("  %-4d  %-8s ", seat, "(" + base.x() + "," + base.y() + ")"));
+                for (int metric = 0; metric < METRICS.length; metric++) {
+                    line.append(String.format("%-22s  ", String.format("%.3f +- %.3f", seatMean(seat, metric), seatStdDev(seat, metric))));
+                }
+                out.println(line.toString().stripTrailing());
+            }
+            out.printf("  layout imbalance %.3f; marker distance spread p50 %.2f, p90 %.2f, p99 %.2f%n",
+                    layoutImbalance(), spreadQuantile(0.5), spreadQuantile(0.9), spreadQuantile(0.99));
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+
+    // Суммы метрик по местам и разбросы по доскам; частичные результаты задач сливаются
+    public static final class Stats {
+        final double[][] sums;
+        final double[][] squares;
+        final Base[] bases;
+        double[] spreads;
+        int boards;
+
+        Stats(int players, int capacity) {
+            this.sums = new double[players][METRICS.length];
+            this.squares = new double[players][METRICS.length];
+            this.bases = new Base[players];
+            this.spreads = new double[capacity];
+        }
+
+        void add(double[][] seatMetrics, double spread, List<Player> players) {
+            for (int seat = 0; seat < seatMetrics.length; seat++) {
+                bases[seat] = players.get(seat).getBase();
+                for (int metric = 0; metric < METRICS.length; metric++) {
+                    sums[seat][metric] += seatMetrics[seat][metric];
+                    squares[seat][metric] += seatMetrics[seat][metric] * seatMetrics[seat][metric];
+                }
+            }
+            spreads[boards++] = spread;
+        }
+
+        Stats merge(Stats other) {
+            for (int seat = 0; seat < sums.length; seat++) {
+                if (bases[seat] == null) bases[seat] = other.bases[seat];
+                for (int metric = 0; metric < METRICS.length; metric++) {
+                    sums[seat][metric] += other.sums[seat][metric];
+                    squares[seat][metric] += other.squares[seat][metric];
+                }
+            }
+            double[] merged = Arrays.copyOf(spreads, boards + other.boards);
+            System.arraycopy(other.spreads, 0, merged, boards, other.boards);
+            spreads = merged;
+            boards += other.boards;
+            return this;
+        }
+    }
+
+    private final class AnalyzeTask extends RecursiveTask<Stats> {
+        private final int boardSize;
+        private final int players;
+        private final int from;
+        private final int to;
+
+        AnalyzeTask(int boardSize, int players, int from, int to) {
+            this.boardSize = boardSize;
+            this.players = players;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from > LEAF_BOARDS) {
+                int middle = (from + to) >>> 1;
+                AnalyzeTask left = new AnalyzeTask(boardSize, players, from, middle);
+                left.fork();
+                Stats right = new AnalyzeTask(boardSize, players, middle, to).compute();
+                return left.join().merge(right);
+            }
+            Stats stats = new Stats(players, to - from);
+            for (int i = from; i < to; i++) {
+                GameRoom room = new GameRoom(players, "fairness");
+                room.setBoardSize(boardSize);
+                for (int seat = 0; seat < players; seat++) {
+                    room.addPlayer(new Player(UUID.randomUUID(), "P" + seat, new Base(0, 0, Set.of())));
+                }
+                Board board = setupService.setupBoard(room);
+                stats.add(measure(board, room.getPlayers()), FairnessModel.markerDistanceSpread(board, room.getPlayers()),
+                        room.getPlayers());
+            }
+            return stats;
+        }
+
+        private double[][] measure(Board board, List<Player> seats) {
+            int size = board.getSize();
+            double[][] metrics = new double[seats.size()][METRICS.length];
+            int[] baseCells = new int[seats.size()];
+            for (int seat = 0; seat < seats.size(); seat++) {
+                Player player = seats.get(seat);
+                baseCells[seat] = player.getBase().y() * size + player.getBase().x();
+                metrics[seat][MARKER_DISTANCE] = meanMarkerDistance(board, player);
+                metrics[seat][BASE_AREA] = board.getConnectivity().getComponentSize(baseCells[seat]);
+            }
+
+            Board scratch = new Board(board);
+            int optionCount = TurnEnumerator.shiftOptionCount(size);
+            for (int option = 0; option < optionCount; option++) {
+                int shiftIndex = 1 + 2 * (option / DIRECTIONS.length);
+                Direction direction = DIRECTIONS[option % DIRECTIONS.length];
+                shiftService.shiftTiles(scratch, shiftIndex, direction);
+                ConnectivityIndex connectivity = scratch.getConnectivity();
+                for (int seat = 0; seat < seats.size(); seat++) {
+                    int base = BoardShiftService.shiftedCellIndex(size, baseCells[seat], shiftIndex, direction);
+                    metrics[seat][BEST_SHIFT_AREA] = Math.max(metrics[seat][BEST_SHIFT_AREA], connectivity.getComponentSize(base));
+                    if (metrics[seat][FIRST_TURN_MARKER] == 0 && ownMarkerConnected(scratch, seats.get(seat), base)) {
+                        metrics[seat][FIRST_TURN_MARKER] = 1;
+                    }
+                }
+                shiftService.shiftTiles(scratch, shiftIndex, direction.opposite());
+            }
+            return metrics;
+        }
+
+        private double meanMarkerDistance(Board board, Player player) {
+            int size = board.getSize();
+            int sum = 0;
+            int count = 0;
+            for (int markerId : player.getTargetMarkerIds()) {
+                int slot = board.getMarkerSlot(markerId);
+                if (slot >= 0 && slot < size * size) {
+                    sum += Math.abs(slot % size - player.getBase().x()) + Math.abs(slot / size - player.getBase().y());
+                    count++;
+                }
+            }
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        private boolean ownMarkerConnected(Board board, Player player, int baseCell) {
+            int size = board.getSize();
+            ConnectivityIndex connectivity = board.getConnectivity();
+            for (int markerId : player.getTargetMarkerIds()) {
+                int slot = board.getMarkerSlot(markerId);
+                if (slot >= 0 && slot < size * size && connectivity.areConnected(baseCell, slot)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package max.iv.labyrinth_game.simulation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import max.iv.labyrinth_game.config.game.BoardConfigLoader;
+import max.iv.labyrinth_game.exceptions.game.GameLogicException;
+import max.iv.labyrinth_game.model.game.Board;
+import max.iv.labyrinth_game.model.game.GameRecording;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Marker;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.TestGames;
+import max.iv.labyrinth_game.model.game.enums.Direction;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.service.game.BoardShiftService;
+import max.iv.labyrinth_game.service.game.GameService;
+import max.iv.labyrinth_game.service.game.ReplayService;
+import max.iv.labyrinth_game.service.game.RoomService;
+import max.iv.labyrinth_game.service.game.TurnEnumerator;
+import max.iv.labyrinth_game.service.game.actions.MoveActionContext;
+import max.iv.labyrinth_game.service.game.actions.ShiftActionContext;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Безголовый прогон целых партий через настоящие GameService, BoardSetupService и BoardShiftService —
+ * без Spring, веб-слоя и сокетов. Партии идут параллельно на всех ядрах; после каждого действия
+ * проверяются инварианты (игроки на доске, маркеры не теряются и не дублируются, фаза и очередь хода).
+ * Нужен для оценки железа и для фаззинга правил.
+ * Запуск: mvn test-compile, затем java -cp target/classes:target/test-classes:&lt;зависимости&gt;
+ * max.iv.labyrinth_game.simulation.GameSimulator [games] [threads] [players] [random|greedy] [seed] [boardSize]
+ */
+public class GameSimulator {
+
+    private static final int MAX_REPORTED_VIOLATIONS = 20;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    public enum Strategy {
+        RANDOM, // случайный сдвиг и случайная достижимая клетка
+        GREEDY  // сдвиг и клетка, после которых фишка ближе всего к своей цели
+    }
+
+    // boardSize = 0 — доска из board-layout.json
+    public record Config(int games, int threads, int playersPerGame, Strategy strategy, int maxTurnsPerGame, long seed,
+                         int boardSize) {
+    }
+
+    public record Report(int games, int finishedGames, long turns, long elapsedNanos, long allocatedBytes,
+                         long violationCount, List<String> violations) {
+
+        public double gamesPerSecond() {
+            return games * 1e9 / elapsedNanos;
+        }
+
+        public double turnsPerSecond() {
+            return turns * 1e9 / elapsedNanos;
+        }
+
+        // -1, если JVM не умеет считать аллокации по потокам
+        public double allocatedMegabytesPerSecond() {
+            return allocatedBytes < 0 ? -1 : allocatedBytes / 1e6 * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("games %d (finished %d), turns %d in %.2f s: %.0f games/s, %.0f turns/s, %.1f MB/s allocated, %d invariant violations",
+                    games, finishedGames, turns, elapsedNanos / 1e9, gamesPerSecond(), turnsPerSecond(),
+                    allocatedMegabytesPerSecond(), violationCount);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config(
+                args.length > 0 ? Integer.parseInt(args[0]) : 10_000,
+                args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors(),
+                args.length > 2 ? Integer.parseInt(args[2]) : 4,
+                args.length > 3 ? Strategy.valueOf(args[3].toUpperCase()) : Strategy.GREEDY,
+                2_000,
+                args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime(),
+                args.length > 5 ? Integer.parseInt(args[5]) : 0);
+        Report report = new GameSimulator().run(config);
+        System.out.println(report);
+        report.violations().forEach(v -> System.out.println("  " + v));
+    }
+
+    public Report run(Config config) throws Exception {
+        Logger gameLogger = (Logger) LoggerFactory.getLogger("max.iv.labyrinth_game");
+        Level previousLevel = gameLogger.getLevel();
+        gameLogger.setLevel(Level.WARN); // сервисы пишут INFO на каждое действие — на миллионах ходов это всё время прогона
+
+        BoardConfigLoader configLoader = TestGames.loader();
+
+        AtomicInteger nextGame = new AtomicInteger();
+        AtomicInteger finishedGames = new AtomicInteger();
+        LongAdder turns = new LongAdder();
+        LongAdder allocatedBytes = new LongAdder();
+        LongAdder violationCount = new LongAdder();
+        List<String> violations = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < config.threads(); t++) {
+                long workerSeed = config.seed() + t;
+                workers.add(executor.submit(() -> {
+                    long allocatedBefore = threadAllocatedBytes();
+                    Worker worker = new Worker(configLoader, config, new Random(workerSeed), violationCount, violations);
+                    for (int game = nextGame.getAndIncrement(); game < config.games(); game = nextGame.getAndIncrement()) {
+                        if (worker.playGame(game)) {
+                            finishedGames.incrementAndGet();
+                        }
+                        turns.add(worker.turnsInLastGame);
+                    }
+                    allocatedBytes.add(threadAllocatedBytes() - allocatedBefore);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            gameLogger.setLevel(previousLevel);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Report(config.games(), finishedGames.get(), turns.sum(), elapsed,
+                threadAllocatedBytes() < 0 ? -1 : allocatedBytes.sum(),
+                violationCount.sum(), List.copyOf(violations));
+    }
+
+    private static long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Свой набор сервисов на поток: общие только конфиг доски и счётчики
+    private static final class Worker {
+        private final Config config;
+        private final Random random;
+        private final LongAdder violationCount;
+        private final List<String> violations;
+        private final TestGames games;
+        private final RoomService roomService;
+        private final GameService gameService;
+        private final BoardShiftService boardShiftService = new BoardShiftService();
+        private final ReplayService replayService = new ReplayService(boardShiftService, 8, 16);
+        private final List<Long> turnHashes = new ArrayList<>();
+        private long turnsInLastGame;
+
+        Worker(BoardConfigLoader configLoader, Config config, Random random, LongAdder violationCount, List<String> violations) {
+            this.config = config;
+            this.random = random;
+            this.violationCount = violationCount;
+            this.violations = violations;
+            this.games = new TestGames(configLoader, replayService);
+            this.roomService = games.getRoomService();
+            this.gameService = games.getGameService();
+        }
+
+        // true — партия доиграна до победителя за отведённое число ходов
+        boolean playGame(int gameNumber) {
+            turnsInLastGame = 0;
+            turnHashes.clear();
+            // Сид партии из генератора потока: прогон с тем же seed повторяет те же партии
+            GameRoom room = games.startRoom(random.nextLong(), config.playersPerGame(), config.boardSize());
+            try {
+                check(room, gameNumber, "start");
+                turnHashes.add(room.getStateHash());
+                while (room.getGamePhase() != GamePhase.GAME_OVER && turnsInLastGame < config.maxTurnsPerGame()) {
+                    if (!playTurn(room, gameNumber)) {
+                        return false;
+                    }
+                    turnsInLastGame++;
+                    turnHashes.add(room.getStateHash());
+                }
+                checkReplay(room, gameNumber);
+                return room.getGamePhase() == GamePhase.GAME_OVER;
+            } finally {
+                roomService.removeRoom(room.getRoomId());
+            }
+        }
+
+        private boolean playTurn(GameRoom room, int gameNumber) {
+            Player player = room.getCurrentPlayer();
+            int option = config.strategy() == Strategy.GREEDY ? greedyShiftOption(room, player) : random.nextInt(
+                    TurnEnumerator.shiftOptionCount(room.getBoard().getSize()));
+            int shiftIndex = 1 + 2 * (option / DIRECTIONS.length);
+            Direction direction = DIRECTIONS[option % DIRECTIONS.length];
+            try {
+                gameService.performShiftAction(new ShiftActionContext(room, player.getId(), shiftIndex, direction));
+                if (!check(room, gameNumber, "shift " + shiftIndex + " " + direction)) return false;
+
+                int target = chooseTarget(room, player);
+                int size = room.getBoard().getSize();
+                gameService.performMoveAction(new MoveActionContext(room, player.getId(), target % size, target / size));
+                return check(room, gameNumber, "move to " + target % size + "," + target / size);
+            } catch (GameLogicException | IllegalArgumentException | IllegalStateException e) {
+                violation(gameNumber, "engine rejected a legal action: " + e);
+                return false;
+            }
+        }
+
+        private int chooseTarget(GameRoom room, Player player) {
+            Board board = room.getBoard();
+            int size = board.getSize();
+            BitSet reachable = room.getReachableCells();
+            if (config.strategy() == Strategy.GREEDY) {
+                return closestToGoal(size, goalCells(board, player), reachable);
+            }
+            int pick = random.nextInt(reachable.cardinality());
+            int cell = reachable.nextSetBit(0);
+            for (int i = 0; i < pick; i++) {
+                cell = reachable.nextSetBit(cell + 1);
+            }
+            return cell >= 0 ? cell : player.getCurrentY() * size + player.getCurrentX();
+        }
+
+        // Перебор сдвигов на черновой копии: выбираем тот, после которого достижимая клетка ближе всего к цели
+        private int greedyShiftOption(GameRoom room, Player player) {
+            Board scratch = new Board(room.getBoard());
+            int size = scratch.getSize();
+            int pawn = player.getCurrentY() * size + player.getCurrentX();
+            int optionCount = TurnEnumerator.shiftOptionCount(size);
+            int bestOption = random.nextInt(optionCount);
+            int bestDistance = Integer.MAX_VALUE;
+            for (int option = 0; option < optionCount; option++) {
+                int shiftIndex = 1 + 2 * (option / DIRECTIONS.length);
+                Direction direction = DIRECTIONS[option % DIRECTIONS.length];
+                boardShiftService.shiftTiles(scratch, shiftIndex, direction);
+                int shiftedPawn = BoardShiftService.shiftedCellIndex(size, pawn, shiftIndex, direction);
+                BitSet reachable = scratch.getConnectivity().cellsConnectedTo(shiftedPawn);
+                int[] goals = goalCells(scratch, player);
+                int distance = goalDistance(size, closestToGoal(size, goals, reachable), goals);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestOption = option;
+                }
+                boardShiftService.shiftTiles(scratch, shiftIndex, direction.opposite());
+            }
+            return bestOption;
+        }
+
+        // Клетки с несобранными маркерами игрока, а когда всё собрано — его база
+        private int[] goalCells(Board board, Player player) {
+            int size = board.getSize();
+            if (player.hasCollectedAllTargetMarkers()) {
+                return new int[]{player.getBase().y() * size + player.getBase().x()};
+            }
+            int[] goals = new int[player.getTargetMarkerIds().size()];
+            int count = 0;
+            for (int markerId : player.getTargetMarkerIds()) {
+                int slot = board.getMarkerSlot(markerId);
+                if (slot >= 0 && slot < size * size && !player.getCollectedMarkerIds().contains(markerId)) {
+                    goals[count++] = slot;
+                }
+            }
+            return Arrays.copyOf(goals, count);
+        }
+
+        private static int closestToGoal(int size, int[] goals, BitSet reachable) {
+            int best = reachable.nextSetBit(0);
+            int bestDistance = Integer.MAX_VALUE;
+            for (int cell = best; cell >= 0; cell = reachable.nextSetBit(cell + 1)) {
+                int distance = goalDistance(size, cell, goals);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = cell;
+                }
+            }
+            return best;
+        }
+
+        // Манхэттенское расстояние до ближайшей цели; маркер на запасном тайле — дальше любой клетки
+        private static int goalDistance(int size, int cell, int[] goals) {
+            int best = 2 * size;
+            for (int goal : goals) {
+                best = Math.min(best, Math.abs(cell % size - goal % size) + Math.abs(cell / size - goal / size));
+            }
+            return best;
+        }
+
+        private boolean check(GameRoom room, int gameNumber, String afterAction) {
+            Board board = room.getBoard();
+            int size = board.getSize();
+            List<String> problems = new ArrayList<>();
+
+            for (Player player : room.getPlayers()) {
+                if (!board.isValidCoordinate(player.getCurrentX(), player.getCurrentY())) {
+                    problems.add(player.getName() + " is off the board at (" + player.getCurrentX() + "," + player.getCurrentY() + ")");
+                }
+                if (!player.getTargetMarkerIds().containsAll(player.getCollectedMarkerIds())) {
+                    problems.add(player.getName() + " collected foreign markers " + player.getCollectedMarkerIds());
+                }
+            }
+
+            Set<Integer> expected = new HashSet<>();
+            board.getAllMarkersInGame().forEach(marker -> expected.add(marker.getId()));
+            Set<Integer> seen = new HashSet<>();
+            for (int slot = 0; slot <= size * size; slot++) {
+                Marker marker = board.getMarker(slot);
+                if (marker != null && !seen.add(marker.getId())) {
+                    problems.add("marker " + marker.getId() + " is duplicated on the board");
+                }
+                if (marker != null && board.getMarkerSlot(marker.getId()) != slot) {
+                    problems.add("marker " + marker.getId() + " is indexed at " + board.getMarkerSlot(marker.getId()) + " instead of " + slot);
+                }
+            }
+            for (Player player : room.getPlayers()) {
+                for (int id : player.getCollectedMarkerIds()) {
+                    if (!seen.add(id)) {
+                        problems.add("marker " + id + " is both collected by " + player.getName() + " and present elsewhere");
+                    }
+                }
+            }
+            if (!seen.equals(expected)) {
+                problems.add("markers lost or invented: expected " + expected + ", found " + seen);
+            }
+
+            GamePhase phase = room.getGamePhase();
+            if (phase == GamePhase.GAME_OVER) {
+                if (room.getWinner() == null || !room.getWinner().isReadyToWin()) {
+                    problems.add("game over without a legitimate winner");
+                }
+            } else if (room.getCurrentPlayer() == null) {
+                problems.add("no current player in phase " + phase);
+            } else if (phase == GamePhase.PLAYER_MOVE && room.getReachableCells() == null) {
+                problems.add("reachable cells missing in PLAYER_MOVE");
+            }
+
+            for (String problem : problems) {
+                violation(gameNumber, "after " + afterAction + ": " + problem);
+            }
+            return problems.isEmpty();
+        }
+
+        // Перемотка записи к каждому ходу даёт то же состояние, что было в живой партии
+        private void checkReplay(GameRoom room, int gameNumber) {
+            GameRecording recording = room.getRecording();
+            if (recording.getTurnCount() != turnHashes.size() - 1) {
+                violation(gameNumber, "recording has " + recording.getTurnCount() + " turns, played " + (turnHashes.size() - 1));
+                return;
+            }
+            for (int turn = 0; turn < turnHashes.size(); turn++) {
+                long replayed = replayService.replayAt(recording, turn).getStateHash();
+                if (replayed != turnHashes.get(turn)) {
+                    violation(gameNumber, "replay diverges at turn " + turn);
+                    return;
+                }
+            }
+        }
+
+        private void violation(int gameNumber, String message) {
+            violationCount.increment();
+            if (violations.size() < MAX_REPORTED_VIOLATIONS) {
+                violations.add("game " + gameNumber + ": " + message);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package max.iv.labyrinth_game.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSimulatorTest {
+
+    @Test
+    void randomGamesKeepInvariants() throws Exception {
+        GameSimulator.Report report = new GameSimulator().run(
+                new GameSimulator.Config(40, 2, 4, GameSimulator.Strategy.RANDOM, 300, 1, 0));
+
+        assertEquals(0, report.violationCount(), () -> String.join("\n", report.violations()));
+        assertTrue(report.turns() > 0);
+    }
+
+    @Test
+    void greedyPlayersFinishGames() throws Exception {
+        GameSimulator.Report report = new GameSimulator().run(
+                new GameSimulator.Config(20, 2, 2, GameSimulator.Strategy.GREEDY, 2_000, 2, 0));
+
+        assertEquals(0, report.violationCount(), () -> String.join("\n", report.violations()));
+        assertTrue(report.finishedGames() > 0);
+    }
+
+    @Test
+    void generatedBoardsKeepInvariants() throws Exception {
+        for (int size : new int[]{5, 11, 21}) {
+            GameSimulator.Report report = new GameSimulator().run(
+                    new GameSimulator.Config(6, 2, 3, GameSimulator.Strategy.GREEDY, 500, size, size));
+
+            assertEquals(0, report.violationCount(), () -> String.join("\n", report.violations()));
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package max.iv.labyrinth_game.simulation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordingStream;
+import max.iv.labyrinth_game.dto.auth.JSONMessageToFront;
+import max.iv.labyrinth_game.model.user.User;
+import max.iv.labyrinth_game.repository.user.UserRepository;
+import max.iv.labyrinth_game.security.service.UserDetailsServiceImpl;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
+import max.iv.labyrinth_game.websocket.GameWebSocketHandler;
+import max.iv.labyrinth_game.websocket.OutboundSendQueues;
+import max.iv.labyrinth_game.websocket.SessionManager;
+import max.iv.labyrinth_game.websocket.SessionTerminationHandler;
+import max.iv.labyrinth_game.websocket.dto.BaseMessage;
+import max.iv.labyrinth_game.websocket.dto.PlayerMoveActionRequest;
+import max.iv.labyrinth_game.websocket.messageHandlers.WebSocketMessageHandler;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Нагрузочный прогон одного узла через настоящий входной путь: GameWebSocketHandler → SessionManager →
+ * QueuedSessionSender, в платформенном и виртуальном режимах (spring.threads.virtual.enabled).
+ * Сессии — заглушки, чья отправка блокируется на sendMillis (медленный клиент). Каждая сессия шлёт одно
+ * сообщение; входной поток (у Tomcat по умолчанию 200 платформенных, в виртуальном режиме — поток на
+ * сообщение) ищет пользователя через UserDetailsServiceImpl, репозиторий которого ждёт dbMillis, затем
+ * команда уходит в ящик комнаты RoomCommandExecutor и через SessionManager рассылается всем сессиям
+ * комнаты. Задержка сообщения — от прихода до доставки последнему получателю; нагрузка выдержана, если
+ * её 99-й процентиль укладывается в SLO. JFR считает события jdk.VirtualThreadPinned без порога:
+ * виртуальный поток, запарковавшийся внутри synchronized на любом участке этого пути.
+ * Запуск: как GameSimulator, класс max.iv.labyrinth_game.simulation.SessionLoadSimulator [maxSessions] [sloMs]
+ */
+public class SessionLoadSimulator {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DEFAULT_MAILBOX_THREADS = 4;
+    private static final String LOAD_PREFIX = "load-";
+
+    public record Config(boolean virtualThreads, int sessions, int playersPerRoom, int inboundThreads,
+                         int mailboxThreads, long dbMillis, long sendMillis) {
+
+        public static Config defaults(boolean virtualThreads, int sessions, int mailboxThreads) {
+            return new Config(virtualThreads, sessions, 4, TOMCAT_MAX_THREADS, mailboxThreads, 10, 20);
+        }
+    }
+
+    public record Result(Config config, long p50Millis, long p99Millis, long pinnedEvents) {
+
+        @Override
+        public String toString() {
+            return String.format("%s, %d sessions: p50 %d ms, p99 %d ms, pinned events %d",
+                    config.virtualThreads() ? "virtual threads" : "platform threads (mailboxes: " + config.mailboxThreads() + ")",
+                    config.sessions(), p50Millis, p99Millis, pinnedEvents);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxSessions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long sloMillis = args.length > 1 ? Long.parseLong(args[1]) : 1_000;
+        SessionLoadSimulator simulator = new SessionLoadSimulator();
+        simulator.run(Config.defaults(true, 400, DEFAULT_MAILBOX_THREADS)); // прогрев JIT, в отчёт не идёт
+        report(sloMillis, simulator.maxSustained(false, DEFAULT_MAILBOX_THREADS, maxSessions, sloMillis));
+        report(sloMillis, simulator.maxSustained(true, DEFAULT_MAILBOX_THREADS, maxSessions, sloMillis));
+    }
+
+    private static void report(long sloMillis, Result sustained) {
+        System.out.println("Max sustained within " + sloMillis + " ms p99 -> " + (sustained == null ? "none" : sustained));
+    }
+
+    // Удваивает число сессий, пока p99 укладывается в SLO; null — не выдержана даже стартовая нагрузка
+    public Result maxSustained(boolean virtualThreads, int mailboxThreads, int maxSessions, long sloMillis) throws Exception {
+        Result sustained = null;
+        for (int sessions = 25; sessions <= maxSessions; sessions *= 2) {
+            Result result = run(Config.defaults(virtualThreads, sessions, mailboxThreads));
+            System.out.println("  " + result);
+            if (result.p99Millis() > sloMillis) {
+                break;
+            }
+            sustained = result;
+        }
+        return sustained;
+    }
+
+    public Result run(Config config) throws Exception {
+        Logger gameLogger = (Logger) LoggerFactory.getLogger("max.iv.labyrinth_game");
+        Level previousLevel = gameLogger.getLevel();
+        gameLogger.setLevel(Level.ERROR);
+
+        int sessions = config.sessions();
+        long[] arrivedAt = new long[sessions];
+        long[] latencies = new long[sessions];
+        AtomicInteger[] pendingDeliveries = new AtomicInteger[sessions];
+        CountDownLatch welcomed = new CountDownLatch(sessions);
+        CountDownLatch done = new CountDownLatch(sessions);
+        LongAdder pinned = new LongAdder();
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build(); // те же модули, что у бина Spring
+        // Значения по умолчанию из application.properties
+        OutboundSendQueues sendQueues = new OutboundSendQueues(64, 512 * 1024, 10_000);
+        SessionManager sessionManager = new SessionManager(objectMapper, mock(SessionTerminationHandler.class), sendQueues);
+        RoomCommandExecutor mailboxes = new RoomCommandExecutor(config.mailboxThreads(),
+                config.playersPerRoom() * 2, config.virtualThreads());
+        UserDetailsServiceImpl users = new UserDetailsServiceImpl(slowUserRepository(config.dbMillis()));
+        Map<String, List<WebSocketSession>> rooms = new ConcurrentHashMap<>();
+        GameWebSocketHandler handler = new GameWebSocketHandler(
+                List.of(new RoomBroadcastHandler(users, mailboxes, sessionManager, objectMapper, rooms)),
+                objectMapper, sessionManager);
+
+        ExecutorService inbound = config.virtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.inboundThreads());
+        try (RecordingStream pinning = new RecordingStream()) {
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+            pinning.startAsync();
+
+            BlockingSession[] clients = new BlockingSession[sessions];
+            for (int i = 0; i < sessions; i++) {
+                clients[i] = new BlockingSession(i, "room-" + i / config.playersPerRoom(), config.sendMillis(), payload -> {
+                    if (!payload.contains(LOAD_PREFIX)) {
+                        welcomed.countDown();
+                        return;
+                    }
+                    int sender = senderOf(payload);
+                    if (pendingDeliveries[sender].decrementAndGet() == 0) {
+                        latencies[sender] = System.nanoTime() - arrivedAt[sender];
+                        done.countDown();
+                    }
+                });
+                handler.afterConnectionEstablished(clients[i]);
+                rooms.computeIfAbsent(clients[i].roomId, id -> new ArrayList<>()).add(sessionManager.outboundSession(clients[i]));
+            }
+            // Приветствия уходят до замера, чтобы очереди отправки стартовали пустыми
+            if (!welcomed.await(1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Welcome frames did not drain: " + welcomed.getCount() + " pending");
+            }
+            for (int i = 0; i < sessions; i++) {
+                pendingDeliveries[i] = new AtomicInteger(rooms.get(clients[i].roomId).size());
+            }
+
+            for (int i = 0; i < sessions; i++) {
+                BlockingSession client = clients[i];
+                TextMessage command = new TextMessage("{\"type\":\"PLAYER_ACTION_MOVE\",\"roomId\":\"" + client.roomId
+                        + "\",\"targetX\":1,\"targetY\":1}");
+                arrivedAt[i] = System.nanoTime();
+                inbound.execute(() -> {
+                    try {
+                        handler.handleMessage(client, command);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            if (!done.await(5, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Load run did not finish: " + done.getCount() + " sessions pending");
+            }
+            pinning.stop();
+        } finally {
+            inbound.shutdownNow();
+            mailboxes.shutdown();
+            sendQueues.shutdown();
+            gameLogger.setLevel(previousLevel);
+        }
+
+        Arrays.sort(latencies);
+        return new Result(config, percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99), pinned.sum());
+    }
+
+    private static int senderOf(String payload) {
+        int start = payload.indexOf(LOAD_PREFIX) + LOAD_PREFIX.length();
+        int end = start;
+        while (end < payload.length() && Character.isDigit(payload.charAt(end))) {
+            end++;
+        }
+        return Integer.parseInt(payload.substring(start, end));
+    }
+
+    // Репозиторий пользователей, где поиск по имени блокируется на dbMillis — как запрос в БД
+    private static UserRepository slowUserRepository(long dbMillis) {
+        User user = new User();
+        user.setUsername("load");
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByUsername")) {
+                        sleep(dbMillis);
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static long percentileMillis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(index, 0)]);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Ход как команда комнаты: поиск пользователя, затем рассылка составу комнаты через ящик
+    private static final class RoomBroadcastHandler implements WebSocketMessageHandler {
+        private final UserDetailsServiceImpl users;
+        private final RoomCommandExecutor mailboxes;
+        private final SessionManager sessionManager;
+        private final ObjectMapper objectMapper;
+        private final Map<String, List<WebSocketSession>> rooms;
+
+        RoomBroadcastHandler(UserDetailsServiceImpl users, RoomCommandExecutor mailboxes, SessionManager sessionManager,
+                             ObjectMapper objectMapper, Map<String, List<WebSocketSession>> rooms) {
+            this.users = users;
+            this.mailboxes = mailboxes;
+            this.sessionManager = sessionManager;
+            this.objectMapper = objectMapper;
+            this.rooms = rooms;
+        }
+
+        @Override
+        public boolean supports(BaseMessage message) {
+            return message instanceof PlayerMoveActionRequest;
+        }
+
+        @Override
+        public void handle(WebSocketSession session, BaseMessage message) {
+            users.loadUserByUsername("load");
+            String roomId = ((PlayerMoveActionRequest) message).getRoomId();
+            JSONMessageToFront update = new JSONMessageToFront(LOAD_PREFIX + session.getAttributes().get("index"));
+            mailboxes.execute(roomId, () -> {
+                for (WebSocketSession member : rooms.get(roomId)) {
+                    sessionManager.sendMessageToSession(member, update, objectMapper);
+                }
+            });
+        }
+    }
+
+    // Клиент, чья отправка блокируется на sendMillis; о доставленных кадрах сообщает в onDelivered
+    private static final class BlockingSession implements WebSocketSession {
+        private final String id = UUID.randomUUID().toString();
+        private final String roomId;
+        private final long sendMillis;
+        private final Consumer<String> onDelivered;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private volatile boolean open = true;
+
+        BlockingSession(int index, String roomId, long sendMillis, Consumer<String> onDelivered) {
+            this.roomId = roomId;
+            this.sendMillis = sendMillis;
+            this.onDelivered = onDelivered;
+            attributes.put("index", index);
+            attributes.put(SessionManager.ROOM_ID_ATTRIBUTE_KEY, roomId);
+            attributes.put(SessionManager.USER_ID_ATTRIBUTE_KEY, UUID.randomUUID());
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+            sleep(sendMillis);
+            onDelivered.accept(((TextMessage) message).getPayload());
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+            open = false;
+        }
+
+        @Override
+        public URI getUri() {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return HttpHeaders.EMPTY;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package max.iv.labyrinth_game.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SessionLoadSimulatorTest {
+
+    @Test
+    void realSendPathDeliversEverythingWithoutPinning() throws Exception {
+        SessionLoadSimulator simulator = new SessionLoadSimulator();
+        // run сам падает, если хоть одна рассылка не дошла до всех получателей
+        SessionLoadSimulator.Result platform = simulator.run(SessionLoadSimulator.Config.defaults(false, 100, 4));
+        SessionLoadSimulator.Result virtual = simulator.run(SessionLoadSimulator.Config.defaults(true, 100, 4));
+
+        // Отправки в обоих режимах идут в виртуальных потоках QueuedSessionSender
+        assertEquals(0, platform.pinnedEvents(), platform.toString());
+        assertEquals(0, virtual.pinnedEvents(), virtual.toString());
+    }
+}
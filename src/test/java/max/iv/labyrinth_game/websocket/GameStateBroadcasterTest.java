@@ -0,0 +1,76 @@
+package max.iv.labyrinth_game.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import max.iv.labyrinth_game.mappers.game.GameStateMapper;
+import max.iv.labyrinth_game.model.game.Base;
+import max.iv.labyrinth_game.model.game.GameRoom;
+import max.iv.labyrinth_game.model.game.Player;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.service.game.RoomCommandExecutor;
+import max.iv.labyrinth_game.service.game.RoomService;
+import max.iv.labyrinth_game.websocket.dto.GameStateUpdateDTO;
+import max.iv.labyrinth_game.websocket.events.lobby.RoomStateNeedsBroadcastEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameStateBroadcasterTest {
+
+    private final RoomCommandExecutor executor = new RoomCommandExecutor(1, 64, false);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void requestsWithinOneCommandProduceOneSerializationAndOneFramePerPlayer() throws Exception {
+        GameRoom room = new GameRoom(2, "coalesce");
+        SessionManager sessionManager = mock(SessionManager.class);
+        List<WebSocketSession> sessions = new ArrayList<>();
+        for (String name : List.of("A", "B")) {
+            Player player = new Player(UUID.randomUUID(), name, new Base(0, 0, Set.of()));
+            room.addPlayer(player);
+            WebSocketSession session = mock(WebSocketSession.class);
+            when(session.isOpen()).thenReturn(true);
+            when(sessionManager.getSessionByPlayerId(player.getId())).thenReturn(session);
+            sessions.add(session);
+        }
+        RoomService roomService = mock(RoomService.class);
+        when(roomService.getRoom(room.getRoomId())).thenReturn(room);
+        GameStateMapper mapper = mock(GameStateMapper.class);
+        when(mapper.toDto(room)).thenReturn(
+                new GameStateUpdateDTO(room.getRoomId(), "coalesce", GamePhase.PLAYER_SHIFT, null, List.of(), null));
+        GameStateBroadcaster broadcaster = new GameStateBroadcaster(sessionManager, roomService, new ObjectMapper(),
+                mapper, executor);
+
+        // Как ход: событие плюс прямой вызов, и ещё пара запросов в той же команде
+        executor.submit(room.getRoomId(), () -> {
+            broadcaster.handleRoomStateNeedsBroadcast(new RoomStateNeedsBroadcastEvent(this, room.getRoomId()));
+            broadcaster.broadcastGameStateToRoom(room.getRoomId());
+            broadcaster.broadcastGameStateToRoom(room.getRoomId());
+            broadcaster.broadcastGameStateToRoom(room.getRoomId());
+            return null;
+        }).join();
+        // Сброс стоит в ящике следом за командой
+        executor.submit(room.getRoomId(), () -> null).join();
+
+        assertEquals(new GameStateBroadcaster.BroadcastStats(3, 1, 2), broadcaster.getStats());
+        for (WebSocketSession session : sessions) {
+            verify(session, times(1)).sendMessage(any(TextMessage.class));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package max.iv.labyrinth_game.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueuedSessionSenderTest {
+
+    private static final String STATE_1 = "{\"type\":\"GAME_STATE_UPDATE\",\"turn\":1}";
+    private static final String STATE_2 = "{\"type\":\"GAME_STATE_UPDATE\",\"turn\":2}";
+    private static final String ERROR = "{\"type\":\"ERROR\"}";
+
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstSend = new CountDownLatch(1);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private OutboundSendQueues queues;
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstSend.countDown();
+        queues.shutdown();
+    }
+
+    @Test
+    void staleStateFrameIsReplacedByTheLatestOne() throws Exception {
+        queues = new OutboundSendQueues(8, 64 * 1024, 10_000);
+        WebSocketSession session = queues.wrap(stalledSession());
+
+        session.sendMessage(new TextMessage("first"));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        session.sendMessage(new TextMessage(STATE_1));
+        session.sendMessage(new TextMessage(ERROR));
+        session.sendMessage(new TextMessage(STATE_2));
+        releaseFirstSend.countDown();
+
+        waitUntil(() -> sent.size() == 3);
+        assertEquals(List.of("first", ERROR, STATE_2), sent);
+        assertEquals(new OutboundSendQueues.SendStats(3, 1, 0), queues.getStats());
+    }
+
+    @Test
+    void clientThatExceedsTheQueueLimitIsClosedOffTheCallingThread() throws Exception {
+        queues = new OutboundSendQueues(2, 64 * 1024, 10_000);
+        WebSocketSession raw = stalledSession();
+        // Закрытие зависшей сессии тоже висит — как кадр закрытия за застрявшей записью в Tomcat
+        AtomicReference<String> closingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            closingThread.set(Thread.currentThread().getName());
+            releaseFirstSend.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(raw).close(CloseStatus.SESSION_NOT_RELIABLE);
+        WebSocketSession session = queues.wrap(raw);
+
+        session.sendMessage(new TextMessage("first"));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        session.sendMessage(new TextMessage(ERROR));
+        session.sendMessage(new TextMessage(ERROR));
+        session.sendMessage(new TextMessage(ERROR));
+
+        verify(raw, timeout(5_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertTrue(closingThread.get().startsWith("ws-evict-"), "closed on " + closingThread.get());
+        assertEquals(1, queues.getStats().slowConsumersClosed());
+    }
+
+    @Test
+    void stalledClientsDoNotDelayAHealthyOne() throws Exception {
+        queues = new OutboundSendQueues(8, 64 * 1024, 10_000);
+        // Больше зависших клиентов, чем было потоков у прежнего общего пула отправки
+        int stalledCount = 5;
+        CountDownLatch stalledStarted = new CountDownLatch(stalledCount);
+        for (int i = 0; i < stalledCount; i++) {
+            queues.wrap(stalledSession("stalled-" + i, stalledStarted)).sendMessage(new TextMessage("first"));
+        }
+        assertTrue(stalledStarted.await(5, TimeUnit.SECONDS));
+
+        WebSocketSession healthyRaw = mock(WebSocketSession.class);
+        when(healthyRaw.getId()).thenReturn("healthy");
+        when(healthyRaw.isOpen()).thenReturn(true);
+        CountDownLatch delivered = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            delivered.countDown();
+            return null;
+        }).when(healthyRaw).sendMessage(any());
+        queues.wrap(healthyRaw).sendMessage(new TextMessage(STATE_1));
+
+        assertTrue(delivered.await(1, TimeUnit.SECONDS), "healthy client waited behind stalled ones");
+    }
+
+    @Test
+    void hungSendWithoutFurtherTrafficIsEvictedBySweep() throws Exception {
+        queues = new OutboundSendQueues(8, 64 * 1024, 50);
+        WebSocketSession raw = stalledSession();
+        WebSocketSession session = queues.wrap(raw);
+
+        session.sendMessage(new TextMessage("first"));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        queues.sweep();
+
+        verify(raw, timeout(5_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1, queues.getStats().slowConsumersClosed());
+    }
+
+    private WebSocketSession stalledSession() throws Exception {
+        return stalledSession("session-1", firstSendStarted);
+    }
+
+    // Сессия, у которой первая отправка висит, пока тест её не отпустит
+    private WebSocketSession stalledSession(String id, CountDownLatch sendStarted) throws Exception {
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn(id);
+        when(raw.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            sendStarted.countDown();
+            releaseFirstSend.await(5, TimeUnit.SECONDS);
+            sent.add(invocation.<TextMessage>getArgument(0).getPayload());
+            return null;
+        }).when(raw).sendMessage(any());
+        return raw;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
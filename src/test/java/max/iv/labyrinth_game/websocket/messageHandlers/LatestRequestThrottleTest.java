@@ -0,0 +1,55 @@
+package max.iv.labyrinth_game.websocket.messageHandlers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatestRequestThrottleTest {
+
+    private static final long INTERVAL_MS = 100;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final LatestRequestThrottle<Integer> throttle =
+            new LatestRequestThrottle<>(scheduler, TimeUnit.MILLISECONDS.toNanos(INTERVAL_MS));
+    private final List<Integer> answered = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void answersFirstRequestAtOnceAndOnlyTheLatestOneAtTheEndOfTheInterval() throws Exception {
+        throttle.submit("s", 1, answered::add);
+        Thread.sleep(20);
+        assertEquals(List.of(1), answered);
+
+        // Наведение «проезжает» по нескольким позициям и останавливается на последней
+        throttle.submit("s", 2, answered::add);
+        throttle.submit("s", 3, answered::add);
+        throttle.submit("s", 4, answered::add);
+        assertEquals(List.of(1), answered, "nothing is answered before the interval elapses");
+
+        Thread.sleep(INTERVAL_MS * 2);
+        assertEquals(List.of(1, 4), answered);
+    }
+
+    @Test
+    void closedSessionGetsNoPendingAnswer() throws Exception {
+        throttle.submit("s", 1, answered::add);
+        Thread.sleep(20);
+        throttle.submit("s", 2, answered::add);
+        throttle.cancel("s");
+
+        Thread.sleep(INTERVAL_MS * 2);
+        assertEquals(List.of(1), answered);
+        assertEquals(0, throttle.size());
+    }
+}
@@ -0,0 +1,90 @@
+package max.iv.labyrinth_game.websocket.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import max.iv.labyrinth_game.model.game.enums.GamePhase;
+import max.iv.labyrinth_game.websocket.dto.ErrorMessageResponse;
+import max.iv.labyrinth_game.websocket.dto.GameMessageType;
+import max.iv.labyrinth_game.websocket.dto.GameStateUpdateDTO;
+import max.iv.labyrinth_game.websocket.dto.PageInfo;
+import max.iv.labyrinth_game.websocket.dto.RoomListUpdateResponse;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static max.iv.labyrinth_game.websocket.dto.GameMessageType.GAME_STATE_UPDATE;
+import static max.iv.labyrinth_game.websocket.dto.GameMessageType.ROOM_LIST_UPDATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundFrameBufferTest {
+
+    @Test
+    void deliversOnlyOnDemandAndAlwaysKeepsTheLatestStateFrame() {
+        OutboundFrameBuffer buffer = new OutboundFrameBuffer(3);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        buffer.subscribe(subscriber);
+
+        assertEquals(OutboundFrameBuffer.Offer.QUEUED, buffer.offer("state-1", GAME_STATE_UPDATE));
+        assertEquals(OutboundFrameBuffer.Offer.QUEUED, buffer.offer("rooms-1", ROOM_LIST_UPDATE));
+        assertEquals(OutboundFrameBuffer.Offer.QUEUED, buffer.offer("error-1", null));
+        assertTrue(subscriber.received.isEmpty(), "nothing is sent before the client asks");
+
+        // Состояние заменяет только своё предыдущее и встаёт в конец очереди
+        assertEquals(OutboundFrameBuffer.Offer.REPLACED_STATE, buffer.offer("state-2", GAME_STATE_UPDATE));
+        // Полная очередь без устаревших кадров: ошибке места нет, последнее состояние не трогается
+        assertEquals(OutboundFrameBuffer.Offer.OVERFLOW, buffer.offer("error-2", null));
+        assertEquals(OutboundFrameBuffer.Offer.REPLACED_STATE, buffer.offer("rooms-2", ROOM_LIST_UPDATE));
+
+        subscriber.subscription.request(2);
+        assertEquals(List.of("error-1", "state-2"), subscriber.received);
+        buffer.complete();
+        assertFalse(subscriber.completed, "completion waits until queued frames are written");
+        subscriber.subscription.request(10);
+        assertEquals(List.of("error-1", "state-2", "rooms-2"), subscriber.received);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void recognizesSerializedStateFrames() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String state = objectMapper.writeValueAsString(
+                new GameStateUpdateDTO("room", "name", GamePhase.PLAYER_SHIFT, null, List.of(), null));
+        String rooms = objectMapper.writeValueAsString(new RoomListUpdateResponse(List.of(), new PageInfo(0, 8, 1, 0)));
+        String error = objectMapper.writeValueAsString(new ErrorMessageResponse("oops"));
+
+        assertEquals(GAME_STATE_UPDATE, GameMessageType.stateFrameType(state));
+        assertEquals(ROOM_LIST_UPDATE, GameMessageType.stateFrameType(rooms));
+        assertNull(GameMessageType.stateFrameType(error));
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<String> {
+        private final List<String> received = new ArrayList<>();
+        private Subscription subscription;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String payload) {
+            received.add(payload);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}